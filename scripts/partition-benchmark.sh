@@ -0,0 +1,120 @@
+#!/usr/bin/env bash
+# Query latency and vacuum cost of a plain versus a hash-partitioned cards table, as a Markdown table.
+#
+#   scripts/partition-benchmark.sh [users] [cards-per-user] [seconds]
+#
+# Starts a throwaway postgres:15 container (same image as docker-compose.yml), loads the cards table in
+# its current unpartitioned shape, runs a pgbench mix of the repository's hot queries against it, dirties
+# a tenth of the rows and times VACUUM; then converts the table the way V10__partition_cards.yml does and
+# repeats. Defaults load 10 million cards, which needs a few GB of disk and several minutes.
+set -euo pipefail
+
+USERS=${1:-1000000}
+CARDS_PER_USER=${2:-10}
+DURATION=${3:-60}
+CLIENTS=${CLIENTS:-8}
+CONTAINER=${CONTAINER:-bankcards-partition-bench}
+IMAGE=${IMAGE:-postgres:15}
+
+psql() {
+  docker exec -i "$CONTAINER" psql -v ON_ERROR_STOP=1 -qAt -U postgres bench "$@"
+}
+
+cleanup() {
+  docker rm -f "$CONTAINER" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+docker run -d --name "$CONTAINER" -e POSTGRES_PASSWORD=bench -e POSTGRES_DB=bench \
+  --shm-size=1g "$IMAGE" -c shared_buffers=512MB -c max_wal_size=4GB >/dev/null
+until docker exec "$CONTAINER" pg_isready -U postgres -d bench >/dev/null 2>&1; do sleep 1; done
+sleep 2
+
+echo "Loading $USERS users with $CARDS_PER_USER cards each" >&2
+psql <<SQL
+create table users (id bigint generated by default as identity primary key, username varchar(255) not null);
+create table cards (
+    id                bigint generated by default as identity primary key,
+    card_number       varchar(255)   not null unique,
+    card_holder_id    bigint         not null references users (id),
+    expiration_date   date           not null,
+    status            varchar(50)    not null,
+    balance           numeric(19, 2) not null,
+    version           bigint         not null default 0,
+    deleted_at        timestamp,
+    status_changed_at timestamp      not null default current_timestamp
+);
+insert into users (username) select 'user' || i from generate_series(1, $USERS) i;
+insert into cards (card_number, card_holder_id, expiration_date, status, balance)
+select md5(u || '-' || c), u, current_date + 365, case when c % 5 = 0 then 'BLOCKED' else 'ACTIVE' end, 1000
+from generate_series(1, $USERS) u, generate_series(1, $CARDS_PER_USER) c;
+create index idx_cards_card_holder_id on cards (card_holder_id);
+create index idx_cards_deleted_at on cards (deleted_at);
+create index idx_cards_status_changed_at on cards (status, status_changed_at);
+vacuum analyze;
+SQL
+
+# One transaction per holder: list and sum the holder's cards, then move money between two of them,
+# like GET /api/cards/my, GET /api/cards/balance and POST /api/cards/transfer.
+docker exec -i "$CONTAINER" sh -c 'cat > /tmp/cards.sql' <<SQL
+\set holder random(1, $USERS)
+begin;
+select id, card_number, expiration_date, status, balance, version from cards
+  where card_holder_id = :holder and deleted_at is null order by id limit 3;
+select coalesce(sum(balance), 0) from cards where card_holder_id = :holder and deleted_at is null;
+update cards set balance = balance - 1, version = version + 1
+  where id = (select min(id) from cards where card_holder_id = :holder) and card_holder_id = :holder;
+update cards set balance = balance + 1, version = version + 1
+  where id = (select max(id) from cards where card_holder_id = :holder) and card_holder_id = :holder;
+commit;
+SQL
+
+run() {
+  local layout=$1
+  psql -c "checkpoint" >/dev/null
+  local out latency tps
+  out=$(docker exec "$CONTAINER" pgbench -n -U postgres -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -r \
+    -f /tmp/cards.sql bench)
+  latency=$(echo "$out" | awk '/^latency average/ {print $4}')
+  tps=$(echo "$out" | awk '/^tps/ {printf "%.0f", $3}')
+
+  # dead tuples as left behind by a day of status changes, then a full vacuum pass over them
+  psql -c "update cards set version = version + 1 where id % 10 = 0" >/dev/null
+  local start end vacuum
+  start=$(date +%s.%N)
+  psql -c "vacuum cards" >/dev/null
+  end=$(date +%s.%N)
+  vacuum=$(echo "$end - $start" | bc)
+  local size
+  size=$(psql -c "select pg_size_pretty(sum(pg_total_relation_size(c.oid))) from pg_class c
+                   where c.relname = 'cards' or c.relname like 'cards_partitioned_%'")
+  printf '| %s | %s | %s | %.1f | %s |\n' "$layout" "$latency" "$tps" "$vacuum" "$size"
+}
+
+echo "| Layout | Latency avg (ms) | TPS | VACUUM after 10% updates (s) | Size |"
+echo "|--------|------------------|-----|------------------------------|------|"
+run "Plain"
+
+echo "Converting to 16 hash partitions" >&2
+psql <<'SQL'
+create table cards_partitioned (like cards including defaults, primary key (card_holder_id, id))
+  partition by hash (card_holder_id);
+do $$
+begin
+    for i in 0..15 loop
+        execute format('create table cards_partitioned_%s partition of cards_partitioned '
+                       'for values with (modulus 16, remainder %s)', lpad(i::text, 2, '0'), i);
+    end loop;
+end $$;
+insert into cards_partitioned select * from cards;
+create unique index on cards_partitioned (card_holder_id, card_number);
+create index on cards_partitioned (card_number);
+create index on cards_partitioned (card_holder_id, status);
+create index on cards_partitioned (deleted_at);
+create index on cards_partitioned (status, status_changed_at);
+alter table cards rename to cards_unpartitioned;
+alter table cards_partitioned rename to cards;
+drop table cards_unpartitioned;
+vacuum analyze cards;
+SQL
+run "Hash x16"
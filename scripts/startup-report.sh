@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Startup time and resident memory of the application in each packaging mode, as a Markdown table.
+#
+#   ./mvnw -Pcds -DskipTests package       # thin jar + lib/ + AOT classes + CDS archive
+#   ./mvnw -Pnative native:compile         # optional, needs GraalVM
+#   scripts/startup-report.sh [runs]
+#
+# The application needs its usual environment (SPRING_DATASOURCE_*, JWT_SECRET, ENCRYPTION_SECRET,
+# METRICS_PASSWORD). EXTRA_CP is appended to the JVM classpath, e.g. a different JDBC driver; give it
+# as an absolute path. The JVM runs from the target directory because the CDS archive records the
+# classpath exactly as it was at training time and is silently ignored on any mismatch.
+set -euo pipefail
+
+RUNS=${1:-5}
+cd "${TARGET:-target}"
+JAR=$(ls *-cds.jar 2>/dev/null | head -1 || true)
+JSA=application.jsa
+NATIVE=./bank-card-management-system
+MAIN=com.example.bankcards.BankCardManagementSystemApplication
+CP="$JAR${EXTRA_CP:+:$EXTRA_CP}"
+
+# Runs the command until the "Started" line, then prints "<seconds> <rss-mb>".
+measure() {
+  local log
+  log=$(mktemp)
+  "$@" >"$log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1 600); do
+    if grep -q "Started BankCardManagementSystemApplication" "$log"; then
+      break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "failed to start: $*" >&2
+      tail -20 "$log" >&2
+      return 1
+    fi
+    sleep 0.1
+  done
+  local seconds rss
+  seconds=$(grep -o "process running for [0-9.]*" "$log" | awk '{print $4}')
+  rss=$(awk '/VmRSS/ {printf "%.0f", $2 / 1024}' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+  echo "$seconds $rss"
+}
+
+report() {
+  local mode=$1
+  shift
+  local results=()
+  for _ in $(seq 1 "$RUNS"); do
+    results+=("$(measure "$@")")
+  done
+  printf '%s\n' "${results[@]}" | sort -n | awk -v mode="$mode" '
+    { t[NR] = $1; r[NR] = $2 }
+    END { m = int((NR + 1) / 2); printf "| %s | %.2f | %.2f | %d |\n", mode, t[m], t[1], r[m] }'
+}
+
+echo "| Mode | Startup, median (s) | Startup, best (s) | RSS after start, median (MB) |"
+echo "|------|---------------------|-------------------|------------------------------|"
+if [[ -n "$JAR" ]]; then
+  report "JVM" java -cp "$CP" "$MAIN"
+  report "JVM + AOT" java -Dspring.aot.enabled=true -cp "$CP" "$MAIN"
+  if [[ -f "$JSA" ]]; then
+    report "JVM + AOT + CDS" java -XX:SharedArchiveFile="$JSA" -Dspring.aot.enabled=true -cp "$CP" "$MAIN"
+  fi
+else
+  echo "no *-cds.jar in $PWD, build it with ./mvnw -Pcds package" >&2
+fi
+if [[ -x "$NATIVE" ]]; then
+  report "Native image" "$NATIVE"
+fi
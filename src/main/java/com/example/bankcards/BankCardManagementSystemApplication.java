@@ -4,9 +4,11 @@ import com.example.bankcards.config.JwtConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableConfigurationProperties(JwtConfig.class)
+@EnableScheduling
 public class BankCardManagementSystemApplication {
     public static void main(String[] args) {
         SpringApplication.run(BankCardManagementSystemApplication.class, args);
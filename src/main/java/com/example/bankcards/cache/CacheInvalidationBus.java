@@ -0,0 +1,96 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.cache.CacheInvalidationEvent.Type;
+import com.example.bankcards.config.CacheInvalidationConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tells the other nodes which entries of their local caches a write made stale. The ids published
+ * within one transaction are collected and sent with {@code pg_notify} on the transaction's own
+ * connection just before it commits: PostgreSQL delivers the notifications only if the commit succeeds,
+ * and only once it is visible, so a node evicting on receipt cannot reload the old state.
+ * {@link CacheInvalidationListener} turns them into {@link CacheInvalidationEvent}s on every other node.
+ * <p>
+ * Local caches keep evicting their own entries after commit; this only covers the other nodes.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+    static final String MESSAGES_COUNTER_NAME = "bankcards.cache-invalidation.messages";
+
+    private static final String NOTIFY = "select pg_notify(?, ?)";
+
+    private final CacheInvalidationConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    @Getter
+    private final String node = UUID.randomUUID().toString();
+    private final Counter sent;
+
+    public CacheInvalidationBus(CacheInvalidationConfig config, JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sent = Counter.builder(MESSAGES_COUNTER_NAME)
+                .description("Cache invalidation notifications exchanged between nodes")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Announces the change to the other nodes when the surrounding transaction commits, together with
+     * everything else the transaction published, or right away outside a transaction.
+     */
+    public void publish(Type type, Long id) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(Map.of(type, Set.of(id)));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.ids.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(id);
+    }
+
+    private void send(Map<Type, Set<Long>> ids) {
+        List<String> payloads = InvalidationMessage.encode(node, ids);
+        for (String payload : payloads) {
+            jdbcTemplate.queryForList(NOTIFY, config.getChannel(), payload);
+        }
+        sent.increment(payloads.size());
+        log.debug("Published cache invalidation of {} in {} notifications", ids.keySet(), payloads.size());
+    }
+
+    private class Pending implements TransactionSynchronization {
+        private final Map<Type, Set<Long>> ids = new EnumMap<>(Type.class);
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            send(ids);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+        }
+    }
+}
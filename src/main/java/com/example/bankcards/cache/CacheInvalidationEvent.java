@@ -0,0 +1,48 @@
+package com.example.bankcards.cache;
+
+import java.util.Set;
+
+/**
+ * Published on every node when entries of a local cache were changed by another node. Without ids,
+ * all entries of the type are stale, e.g. after the listener missed notifications while reconnecting.
+ */
+public record CacheInvalidationEvent(Type type, Set<Long> ids) {
+
+    public static CacheInvalidationEvent all(Type type) {
+        return new CacheInvalidationEvent(type, null);
+    }
+
+    public boolean isAll() {
+        return ids == null;
+    }
+
+    public enum Type {
+        /**
+         * The user's token version, by user id.
+         */
+        USER('u'),
+        /**
+         * Cached listings of the user's cards, by holder id.
+         */
+        USER_CARDS('c');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        char code() {
+            return code;
+        }
+
+        static Type of(char code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown invalidation type '" + code + "'");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.cache.CacheInvalidationEvent.Type;
+import com.example.bankcards.config.CacheInvalidationConfig;
+import com.example.bankcards.config.ShardingConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listens for the invalidations other nodes publish through {@link CacheInvalidationBus} and republishes
+ * them locally as {@link CacheInvalidationEvent}s. It holds its own connection outside the pool, since
+ * {@code LISTEN} is bound to a session, and reconnects with a growing delay when it is lost. Notifications
+ * sent while it was disconnected are gone, so after a reconnect every cache is cleared once.
+ * <p>
+ * With sharding, a notification is sent on the shard whose transaction made the change, so there is one
+ * listener connection and thread per shard.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationListener {
+    private final CacheInvalidationConfig config;
+    private final DataSourceProperties dataSourceProperties;
+    private final ShardingConfig shardingConfig;
+    private final CacheInvalidationBus bus;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter received;
+    private final Counter reconnects;
+
+    private final AtomicInteger connected = new AtomicInteger();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public CacheInvalidationListener(CacheInvalidationConfig config, DataSourceProperties dataSourceProperties,
+                                     ShardingConfig shardingConfig, CacheInvalidationBus bus,
+                                     ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.dataSourceProperties = dataSourceProperties;
+        this.shardingConfig = shardingConfig;
+        this.bus = bus;
+        this.eventPublisher = eventPublisher;
+        this.received = Counter.builder(CacheInvalidationBus.MESSAGES_COUNTER_NAME)
+                .description("Cache invalidation notifications exchanged between nodes")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.reconnects = Counter.builder("bankcards.cache-invalidation.reconnects")
+                .description("Listener connections re-established after a failure")
+                .register(meterRegistry);
+        Gauge.builder("bankcards.cache-invalidation.connected", connected, AtomicInteger::get)
+                .description("Listener connections receiving invalidations from the other nodes, one per shard")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Cross-node cache invalidation is disabled");
+            return;
+        }
+        running = true;
+        for (Target target : targets()) {
+            Thread thread = new Thread(() -> run(target), "cache-invalidation-" + target.name());
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join(config.getPollTimeout().toMillis() * 2);
+        }
+    }
+
+    private List<Target> targets() {
+        List<Target> targets = new ArrayList<>();
+        targets.add(new Target("shard-0", dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword()));
+        if (shardingConfig.isEnabled()) {
+            for (int i = 0; i < shardingConfig.getShards().size(); i++) {
+                ShardingConfig.Shard shard = shardingConfig.getShards().get(i);
+                targets.add(new Target("shard-" + (i + 1), shard.getUrl(), shard.getUsername(), shard.getPassword()));
+            }
+        }
+        return targets;
+    }
+
+    private void run(Target target) {
+        Duration delay = config.getReconnectDelay();
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = connect(target)) {
+                connected.incrementAndGet();
+                try {
+                    delay = config.getReconnectDelay();
+                    if (reconnect) {
+                        reconnects.increment();
+                        log.info("Cache invalidation listener of {} reconnected, clearing local caches",
+                                target.name());
+                        for (Type type : Type.values()) {
+                            eventPublisher.publishEvent(CacheInvalidationEvent.all(type));
+                        }
+                    }
+                    listen(connection.unwrap(PGConnection.class));
+                } finally {
+                    connected.decrementAndGet();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener of {} lost its connection, retrying in {}: {}",
+                        target.name(), delay, e.getMessage());
+            }
+            reconnect = true;
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            delay = delay.multipliedBy(2);
+            if (delay.compareTo(config.getMaxReconnectDelay()) > 0) {
+                delay = config.getMaxReconnectDelay();
+            }
+        }
+    }
+
+    private Connection connect(Target target) throws SQLException {
+        Properties properties = new Properties();
+        if (target.username() != null) {
+            properties.setProperty("user", target.username());
+        }
+        if (target.password() != null) {
+            properties.setProperty("password", target.password());
+        }
+        // the listener only reads, so a half-open connection would otherwise go unnoticed
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "bankcards-cache-invalidation");
+        Connection connection = DriverManager.getConnection(target.url(), properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + config.getChannel());
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        log.info("Listening for cache invalidations of {} on channel {}", target.name(), config.getChannel());
+        return connection;
+    }
+
+    /**
+     * Returns only by an exception once the connection broke, or when the node shuts down.
+     */
+    private void listen(PGConnection connection) throws SQLException {
+        int timeout = (int) Math.max(1, config.getPollTimeout().toMillis());
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications(timeout);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                dispatch(notification.getParameter());
+            }
+        }
+    }
+
+    void dispatch(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.parse(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed cache invalidation '{}', clearing local caches: {}", payload, e.getMessage());
+            for (Type type : Type.values()) {
+                eventPublisher.publishEvent(CacheInvalidationEvent.all(type));
+            }
+            return;
+        }
+        if (message.node().equals(bus.getNode())) {
+            return;
+        }
+        received.increment();
+        for (Map.Entry<Type, Set<Long>> entry : message.ids().entrySet()) {
+            eventPublisher.publishEvent(new CacheInvalidationEvent(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private record Target(String name, String url, String username, String password) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.cache.CacheInvalidationEvent.Type;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wire format of one notification: the sending node followed by the ids per type, e.g.
+ * {@code 3f2a... u:12,40 c:12}. PostgreSQL limits a payload to 8000 bytes, so a large set of ids is
+ * split over several messages.
+ */
+record InvalidationMessage(String node, Map<Type, Set<Long>> ids) {
+    static final int MAX_PAYLOAD = 7_900;
+
+    static List<String> encode(String node, Map<Type, Set<Long>> ids) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(node);
+        for (Map.Entry<Type, Set<Long>> entry : ids.entrySet()) {
+            char separator = ' ';
+            for (Long id : entry.getValue()) {
+                String next = separator == ' ' ? " " + entry.getKey().code() + ":" + id : "," + id;
+                if (payload.length() + next.length() > MAX_PAYLOAD) {
+                    payloads.add(payload.toString());
+                    payload.setLength(0);
+                    payload.append(node);
+                    next = " " + entry.getKey().code() + ":" + id;
+                }
+                payload.append(next);
+                separator = ',';
+            }
+        }
+        if (payload.length() > node.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    static InvalidationMessage parse(String payload) {
+        String[] parts = payload.split(" ");
+        Map<Type, Set<Long>> ids = new EnumMap<>(Type.class);
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.length() < 3 || part.charAt(1) != ':') {
+                throw new IllegalArgumentException("Malformed invalidation entry '" + part + "'");
+            }
+            Set<Long> typeIds = ids.computeIfAbsent(Type.of(part.charAt(0)), type -> new LinkedHashSet<>());
+            for (String id : part.substring(2).split(",")) {
+                typeIds.add(Long.valueOf(id));
+            }
+        }
+        return new InvalidationMessage(parts[0], ids);
+    }
+}
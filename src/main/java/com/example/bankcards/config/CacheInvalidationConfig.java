@@ -0,0 +1,29 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "cache-invalidation")
+public class CacheInvalidationConfig {
+    /**
+     * Requires PostgreSQL; with it off, every node only evicts its own caches.
+     */
+    private boolean enabled = true;
+    private String channel = "bankcards_cache_invalidation";
+    /**
+     * How long the listener waits for notifications before checking the connection again.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(1);
+    /**
+     * First delay before reconnecting a lost listener connection, doubled after each failed attempt.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+    private Duration maxReconnectDelay = Duration.ofSeconds(30);
+}
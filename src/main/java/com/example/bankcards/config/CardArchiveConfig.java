@@ -0,0 +1,27 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "card-archive")
+public class CardArchiveConfig {
+    private boolean enabled = true;
+    private String cron = "0 0 4 * * *";
+    private ZoneId zone = ZoneId.of("UTC");
+    /**
+     * How long a card must have been blocked or expired before it is archived.
+     */
+    private Duration archiveAfter = Duration.ofDays(30);
+    /**
+     * Cards moved by one {@code INSERT ... SELECT} and {@code DELETE}, committed in its own transaction.
+     */
+    private int chunkSize = 1_000;
+}
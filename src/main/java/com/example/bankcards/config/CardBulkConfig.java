@@ -0,0 +1,17 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "card-bulk")
+public class CardBulkConfig {
+    /**
+     * Cards changed by one statement, committed in its own transaction.
+     */
+    private int chunkSize = 1_000;
+}
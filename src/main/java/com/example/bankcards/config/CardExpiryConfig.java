@@ -0,0 +1,33 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "card-expiry")
+public class CardExpiryConfig {
+    private boolean enabled = true;
+    private String cron = "0 30 2 * * *";
+    /**
+     * Time zone of the cron expression and of the date cards expire against.
+     */
+    private ZoneId zone = ZoneId.of("UTC");
+    /**
+     * Width of the id range updated and committed in one transaction.
+     */
+    private int chunkSize = 5_000;
+    /**
+     * Id-range partitions processed in parallel, each holding one pooled connection while it runs.
+     */
+    private int partitions = 2;
+    /**
+     * Upper bound on committed chunks per second across all partitions.
+     */
+    private int chunksPerSecond = 20;
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "card-page-cache")
+public class CardPageCacheConfig {
+    private boolean enabled = true;
+    /**
+     * Upper bound on the estimated heap held by cached pages, in bytes.
+     */
+    private long maximumWeight = 32L * 1024 * 1024;
+    /**
+     * Independently locked parts of the cache; users are spread over them by id.
+     */
+    private int segments = 16;
+}
@@ -17,6 +17,13 @@ import java.nio.charset.StandardCharsets;
 public class JwtConfig {
     private String secret;
     private long expirationMs;
+    private long refreshExpirationMs;
+    private long tokenVersionTtlMs = 30_000;
+    private int tokenVersionCacheSize = 100_000;
+    private int verifiedTokenCacheSize = 10_000;
+    private long cacheSweepMs = 60_000;
+
+    private Revocation revocation = new Revocation();
 
     private SecretKey secretKey;
 
@@ -24,4 +31,13 @@ public class JwtConfig {
     public void init() {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
+
+    @Getter
+    @Setter
+    public static class Revocation {
+        private long refreshMs = 30_000;
+        private long rebuildMs = 3_600_000;
+        private int expectedRevocations = 100_000;
+        private double falsePositiveProbability = 0.01;
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.logging.ErrorPreservingAsyncAppender;
+import com.example.bankcards.logging.SamplingTurboFilter;
+import com.example.bankcards.metrics.JdbcTimingSessionListener;
+import com.example.bankcards.repository.projection.CardIdRange;
+import com.example.bankcards.repository.projection.CardSummary;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import com.example.bankcards.repository.projection.StatementLine;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for a GraalVM native image that Spring's AOT processing cannot
+ * infer on its own. Ignored on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.BankCardsRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class BankCardsRuntimeHints implements RuntimeHintsRegistrar {
+        /**
+         * jjwt-api looks its implementation up by class name.
+         */
+        private static final List<String> JJWT_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyOperations",
+                "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        /**
+         * JCA implementations behind {@code Cipher.getInstance("AES")} in {@code EncryptionUtil}
+         * and the HMAC-SHA signatures of the JWTs.
+         */
+        private static final List<String> JCA_TYPES = List.of(
+                "com.sun.crypto.provider.AESCipher$General",
+                "com.sun.crypto.provider.HmacCore$HmacSHA256",
+                "com.sun.crypto.provider.HmacCore$HmacSHA384",
+                "com.sun.crypto.provider.HmacCore$HmacSHA512");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            JJWT_TYPES.forEach(type -> hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS));
+            JCA_TYPES.forEach(type -> hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // constructor expressions in CardRepository queries and listeners Hibernate creates by name
+            hints.reflection().registerType(CardSummary.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(CardVersionSummary.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(CardIdRange.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(StatementLine.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(JdbcTimingSessionListener.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+            hints.resources().registerPattern("db/migration/*.yml");
+
+            // classes referenced from logback-spring.xml
+            hints.reflection().registerType(SamplingTurboFilter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(ErrorPreservingAsyncAppender.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "profiling")
+public class ProfilingConfig {
+    private boolean enabled = true;
+    private Duration window = Duration.ofMinutes(5);
+    private Duration bucket = Duration.ofSeconds(30);
+    private int topN = 10;
+    /**
+     * Application events shorter than this are not recorded at all. Card crypto and mapping events fire once
+     * per card, so recording every one of them would stream an event per card of every listing and statement.
+     */
+    private Duration eventThreshold = Duration.ofMillis(1);
+    /**
+     * Application events at least this long are kept individually in the slow-event list.
+     */
+    private Duration slowEventThreshold = Duration.ofMillis(50);
+    /**
+     * Monitor enter and thread park waits shorter than this are not recorded.
+     */
+    private Duration lockThreshold = Duration.ofMillis(10);
+    private String allocationThrottle = "100/s";
+    /**
+     * How long the stream keeps recorded data on disk before it is discarded.
+     */
+    private Duration maxAge = Duration.ofMinutes(1);
+}
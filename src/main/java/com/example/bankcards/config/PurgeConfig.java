@@ -0,0 +1,29 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "purge")
+public class PurgeConfig {
+    private boolean enabled = true;
+    /**
+     * Delay between the end of one purge run and the start of the next.
+     */
+    private Duration interval = Duration.ofMinutes(5);
+    /**
+     * How long soft-deleted rows are kept before they are removed for good.
+     */
+    private Duration retention = Duration.ofMinutes(10);
+    /**
+     * Users or cards soft-deleted by a bulk request or removed by the purge with one set of statements,
+     * committed in its own transaction.
+     */
+    private int chunkSize = 1_000;
+}
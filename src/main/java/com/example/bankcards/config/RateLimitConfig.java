@@ -0,0 +1,29 @@
+package com.example.bankcards.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+    private boolean enabled = true;
+    private int maxBuckets = 100_000;
+    private Limit auth = new Limit(10, 1);
+    private Limit read = new Limit(100, 50);
+    private Limit write = new Limit(20, 5);
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int capacity;
+        private int refillPerSecond;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingConfig {
+    private boolean enabled = false;
+    /**
+     * Shards 1 to n-1; shard 0 is {@code spring.datasource}. The number of shards is part of every
+     * user and card id, so it can only be changed by splitting the data again.
+     */
+    private List<Shard> shards = new ArrayList<>();
+    /**
+     * Threads querying shards in parallel for admin listings.
+     */
+    private int fanOutThreads = 8;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int poolSize = 10;
+    }
+}
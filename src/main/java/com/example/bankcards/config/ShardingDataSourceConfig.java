@@ -0,0 +1,135 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single data source by {@link ShardRoutingDataSource} over {@code spring.datasource} as
+ * shard 0 and the pools of {@code sharding.shards}. One entity manager factory serves all shards, since
+ * every shard has the same schema; the shard is picked per transaction.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+@Slf4j
+public class ShardingDataSourceConfig {
+    private static final String MISPLACED_USER = "select id from users where mod(id, ?) <> ? limit 1";
+    private static final String MISPLACED_CARD =
+            "select id from cards where mod(id, ?) <> ? or mod(card_holder_id, ?) <> ? limit 1";
+    private static final String ID_SEQUENCE = "select s.increment_by, s.start_value from pg_sequences s " +
+            "where format('%I.%I', s.schemaname, s.sequencename) = pg_get_serial_sequence(?, 'id')";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shardZeroDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("shard-0");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(HikariDataSource shardZeroDataSource, ShardingConfig config) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(shardZeroDataSource);
+        for (int i = 0; i < config.getShards().size(); i++) {
+            ShardingConfig.Shard shard = config.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getPoolSize());
+            dataSource.setConnectionTimeout(shardZeroDataSource.getConnectionTimeout());
+            dataSource.setPoolName("shard-" + (i + 1));
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * Hibernate would otherwise keep a session's connection until the session closes, which with
+     * open-in-view spans the whole request and every shard it touches.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * Spring Boot migrates the primary data source, which without a shard in context is shard 0; this
+     * applies the same change log to the other shards. Then each shard is checked to hold and hand out only
+     * user and card ids that belong to it, which fails for a shard not set up by {@code split-shards.sh}.
+     */
+    @Bean
+    public InitializingBean shardMigrations(ShardRoutingDataSource dataSource, LiquibaseProperties properties,
+                                            ResourceLoader resourceLoader) {
+        return () -> {
+            List<DataSource> shards = dataSource.getShards();
+            for (int i = 1; i < shards.size(); i++) {
+                log.info("Migrating shard {}", i);
+                SpringLiquibase liquibase = new SpringLiquibase();
+                liquibase.setDataSource(shards.get(i));
+                liquibase.setChangeLog(properties.getChangeLog());
+                liquibase.setChangeLogParameters(properties.getParameters());
+                liquibase.setContexts(properties.getContexts());
+                liquibase.setResourceLoader(resourceLoader);
+                liquibase.afterPropertiesSet();
+            }
+            for (int i = 0; i < shards.size(); i++) {
+                String product = JdbcUtils.extractDatabaseMetaData(shards.get(i),
+                        DatabaseMetaData::getDatabaseProductName);
+                checkShard(new JdbcTemplate(shards.get(i)), "PostgreSQL".equals(product), i, shards.size());
+            }
+        };
+    }
+
+    /**
+     * Fails unless the shard holds only users and cards of its own and, on PostgreSQL, its id sequences hand
+     * out only ids of its own. An empty shard created by the migrations alone still counts from 1 by 1.
+     */
+    static void checkShard(JdbcTemplate shard, boolean postgres, int index, int count) {
+        List<Long> misplaced = shard.queryForList(MISPLACED_USER, Long.class, count, index);
+        if (misplaced.isEmpty()) {
+            misplaced = shard.queryForList(MISPLACED_CARD, Long.class, count, index, count, index);
+        }
+        if (!misplaced.isEmpty()) {
+            throw new IllegalStateException("Shard " + index + " of " + count + " holds user or card ID "
+                    + misplaced.get(0) + " of another shard; split the database with scripts/split-shards.sh");
+        }
+        if (!postgres) {
+            return;
+        }
+        for (String table : List.of("users", "cards")) {
+            List<Map<String, Object>> sequence = shard.queryForList(ID_SEQUENCE, table);
+            long incrementBy = sequence.isEmpty() ? 0 : ((Number) sequence.get(0).get("increment_by")).longValue();
+            long startValue = sequence.isEmpty() ? 0 : ((Number) sequence.get(0).get("start_value")).longValue();
+            if (incrementBy != count || Math.floorMod(startValue, count) != index) {
+                throw new IllegalStateException("Shard " + index + " of " + count + " hands out " + table
+                        + " ids starting at " + startValue + " in steps of " + incrementBy
+                        + "; set up the shard with scripts/split-shards.sh");
+            }
+        }
+    }
+}
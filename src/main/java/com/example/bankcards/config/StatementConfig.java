@@ -0,0 +1,33 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "statement")
+public class StatementConfig {
+    private boolean enabled = true;
+    /**
+     * Statements are generated for the month before the one the job runs in.
+     */
+    private String cron = "0 0 3 1 * *";
+    private ZoneId zone = ZoneId.of("UTC");
+    private Path directory = Path.of("statements");
+    /**
+     * Holder partitions ({@code holder id mod partitions}) generated in parallel, each streaming
+     * over one pooled connection.
+     */
+    private int partitions = 2;
+    /**
+     * Statements written between two checkpoints of a partition.
+     */
+    private int checkpointInterval = 500;
+    private int bufferSize = 64 * 1024;
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "user-import")
+public class UserImportConfig {
+    /**
+     * Rows checked against the database, hashed and inserted together in one transaction.
+     */
+    private int batchSize = 1_000;
+    private int hashingParallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * Row errors listed in the result; further errors are only counted.
+     */
+    private int maxReportedErrors = 1_000;
+}
@@ -1,7 +1,13 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.AuthRequest;
+import com.example.bankcards.dto.RefreshRequest;
+import com.example.bankcards.dto.TokenPair;
+import com.example.bankcards.security.AuthenticatedUser;
 import com.example.bankcards.security.JwtService;
+import com.example.bankcards.service.AuthService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,19 +15,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -31,14 +38,16 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final AuthService authService;
 
     @Operation(summary = "User login",
-            description = "Authenticates a user with username and password and returns a JWT token"
+            description = "Authenticates a user with username and password and returns a short-lived JWT " +
+                    "access token together with a single-use refresh token"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(example = "{\"token\": \"<jwt_token>\"}"))
+                            schema = @Schema(example = "{\"token\": \"<jwt_token>\", \"refreshToken\": \"<refresh_token>\"}"))
             ),
             @ApiResponse(
                     responseCode = "401",
@@ -48,18 +57,59 @@ public class AuthController {
             )
     })
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody AuthRequest request) {
+    public ResponseEntity<TokenPair> login(@RequestBody AuthRequest request) {
         log.info("Login attempt for user '{}'", request.getUsername());
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
         );
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        AuthenticatedUser userDetails = (AuthenticatedUser) authentication.getPrincipal();
         log.info("Authentication successful for user '{}'", userDetails.getUsername());
-        String token = jwtService.generateToken(userDetails);
+        TokenPair tokens = authService.issueTokens(userDetails);
         log.debug("JWT generated for user '{}'", userDetails.getUsername());
 
-        return ResponseEntity.ok(Map.of("token", token));
+        return ResponseEntity.ok(tokens);
+    }
+
+    @Operation(summary = "Refresh tokens",
+            description = "Exchanges a refresh token for a new access token and refresh token. " +
+                    "Each refresh token can be used once"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"token\": \"<jwt_token>\", \"refreshToken\": \"<refresh_token>\"}"))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": \"Refresh token is invalid, expired or already used\"}"))
+            )
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenPair> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @Operation(summary = "User logout",
+            description = "Revokes the presented access token and, if given, the refresh token"
+    )
+    @ApiResponse(responseCode = "204", description = "No Content")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                       @RequestBody(required = false) RefreshRequest request) {
+        if (!authorization.startsWith("Bearer ")) {
+            throw new BadCredentialsException("Bearer token is required");
+        }
+        Claims claims;
+        try {
+            claims = jwtService.extractClaims(authorization.substring(7));
+        } catch (JwtException e) {
+            throw new BadCredentialsException("Invalid access token");
+        }
+        authService.logout(claims, request == null ? null : request.getRefreshToken());
+        return ResponseEntity.noContent().build();
     }
 }
 
@@ -1,9 +1,20 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BulkDeleteResult;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.dto.CardSelectionDto;
+import com.example.bankcards.dto.CardStatusChangeDto;
+import com.example.bankcards.dto.CardStatusChangeResult;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.logging.LogMarkers;
+import com.example.bankcards.security.JwtPrincipal;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import com.example.bankcards.service.CardBulkService;
+import com.example.bankcards.service.CardPageCache;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.EtagGenerator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,14 +27,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/cards")
@@ -32,6 +47,8 @@ import java.util.Map;
 @Tag(name = "Cards", description = "Card management operations")
 public class CardController {
     private final CardService service;
+    private final CardBulkService bulkService;
+    private final CardPageCache pageCache;
 
     @Operation(summary = "Get card by ID", description = "Get card details by ID",
             security = @SecurityRequirement(name = "bearerAuth"))
@@ -39,6 +56,7 @@ public class CardController {
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = CardDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not Modified"),
             @ApiResponse(responseCode = "404", description = "Not Found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(example = "{\"message\": \"Card with ID: 10 not found\"}"))),
@@ -48,12 +66,18 @@ public class CardController {
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping(path = "/{id}")
-    public ResponseEntity<CardDto> getById(@PathVariable Long id, Authentication authentication) {
-        log.info("User '{}' requested card ID: {}", authentication.getName(), id);
-        return ResponseEntity.ok(service.getById(id));
+    public ResponseEntity<CardDto> getById(@PathVariable Long id, Authentication authentication,
+                                           WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "User '{}' requested card ID: {}", authentication.getName(), id);
+        if (webRequest.checkNotModified(EtagGenerator.forVersion(service.getVersionById(id)))) {
+            return null;
+        }
+        CardDto card = service.getById(id);
+        return ResponseEntity.ok().eTag(EtagGenerator.forVersion(card.getVersion())).body(card);
     }
 
-    @Operation(summary = "Get all cards", description = "List of all cards",
+    @Operation(summary = "Get all cards", description = "List of all cards. " +
+            "Optional 'fields' limits the response to the listed fields, e.g. fields=id,status,balance",
             security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK",
@@ -88,9 +112,10 @@ public class CardController {
     })
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public ResponseEntity<Collection<CardDto>> getAll(Authentication authentication) {
-        log.info("User '{}' requested all cards", authentication.getName());
-        return ResponseEntity.ok(service.getAll());
+    public ResponseEntity<Collection<CardDto>> getAll(Authentication authentication,
+                                                      @RequestParam(required = false) String fields) {
+        log.info(LogMarkers.SAMPLED, "User '{}' requested all cards", authentication.getName());
+        return ResponseEntity.ok(service.getAll(CardField.parse(fields)));
     }
 
     @Operation(summary = "Create card", description = "Create card for user",
@@ -130,15 +155,22 @@ public class CardController {
             @ApiResponse(responseCode = "404", description = "Not Found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(example = "{\"message\": \"Card with ID: 10 not found\"}"))),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": " +
+                                    "\"Card with ID: 10 has been modified, reload it and retry\"}"))),
             @ApiResponse(responseCode = "403", description = "Forbidden",
     content = @Content(mediaType = "application/json",
         schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
     })
     @PreAuthorize("hasRole('ADMIN')")
     @PatchMapping(path = "/{id}/block")
-    public ResponseEntity<CardDto> blockCard(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<CardDto> blockCard(@PathVariable Long id, Authentication authentication,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
         log.info("User '{}' requested blocking card ID: {}", authentication.getName(), id);
-        return ResponseEntity.ok(service.changeCardStatus(id, CardStatus.BLOCKED));
+        CardDto card = service.changeCardStatus(id, CardStatus.BLOCKED, EtagGenerator.parseVersion(ifMatch, id));
+        return ResponseEntity.ok().eTag(EtagGenerator.forVersion(card.getVersion())).body(card);
     }
 
     @Operation(summary = "Activate card", description = "Activate card by ID",
@@ -158,15 +190,78 @@ public class CardController {
             @ApiResponse(responseCode = "404", description = "Not Found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(example = "{\"message\": \"Card with ID: 10 not found\"}"))),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": " +
+                                    "\"Card with ID: 10 has been modified, reload it and retry\"}"))),
             @ApiResponse(responseCode = "403", description = "Forbidden",
     content = @Content(mediaType = "application/json",
         schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
     })
     @PreAuthorize("hasRole('ADMIN')")
     @PatchMapping(path = "/{id}/activate")
-    public ResponseEntity<CardDto> activateCard(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<CardDto> activateCard(@PathVariable Long id, Authentication authentication,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
         log.info("User '{}' requested activating card ID: {}", authentication.getName(), id);
-        return ResponseEntity.ok(service.changeCardStatus(id, CardStatus.ACTIVE));
+        CardDto card = service.changeCardStatus(id, CardStatus.ACTIVE, EtagGenerator.parseVersion(ifMatch, id));
+        return ResponseEntity.ok().eTag(EtagGenerator.forVersion(card.getVersion())).body(card);
+    }
+
+    @Operation(summary = "Change status of many cards", description = "Set the status of the listed cards, " +
+            "or of all cards matching the filter, in a few set-based statements",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = """
+                                    {
+                                          "status": "BLOCKED",
+                                          "changed": 2,
+                                          "changedIds": [1, 3]
+                                      }"""))),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": \"Validation failed\", \"details\": " +
+                                    "[\"selectionValid: Either a non-empty list of ids or a non-empty filter must be given\"]}"))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+    content = @Content(mediaType = "application/json",
+        schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping(path = "/status")
+    public ResponseEntity<CardStatusChangeResult> changeStatuses(@Valid @RequestBody CardStatusChangeDto request,
+                                                                 Authentication authentication) {
+        log.info("User '{}' requested bulk status change to {}", authentication.getName(), request.getStatus());
+        return ResponseEntity.ok(bulkService.changeStatuses(request));
+    }
+
+    @Operation(summary = "Delete cards in bulk", description = "Delete cards selected either by ids or by a " +
+            "filter of holderId, status and expiresBefore. Cards are removed from all listings immediately and " +
+            "purged from the database later",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = """
+                                      {
+                                          "deleted": 2,
+                                          "deletedIds": [1, 3]
+                                      }"""))),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": \"Validation failed\", \"details\": " +
+                                    "[\"selectionValid: Either a non-empty list of ids or a non-empty filter must be given\"]}"))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+    content = @Content(mediaType = "application/json",
+        schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/bulk-delete")
+    public ResponseEntity<BulkDeleteResult> bulkDelete(@Valid @RequestBody CardSelectionDto request,
+                                                       Authentication authentication) {
+        log.info("User '{}' requested bulk delete of cards", authentication.getName());
+        return ResponseEntity.ok(bulkService.softDelete(request));
     }
 
     @Operation(summary = "Delete card", description = "Delete card by ID",
@@ -188,7 +283,9 @@ public class CardController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
-    @Operation(summary = "Get own cards", description = "Get current user's cards",
+    @Operation(summary = "Get own cards", description = "Get current user's cards. " +
+            "Optional 'fields' limits the response to the listed fields, e.g. fields=id,status,balance. " +
+            "includeArchived=true appends archived blocked and expired cards after the live ones",
             security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK",
@@ -244,6 +341,7 @@ public class CardController {
                             )
                     }, array = @ArraySchema(schema = @Schema(implementation = CardDto.class)
                     ))),
+            @ApiResponse(responseCode = "304", description = "Not Modified"),
             @ApiResponse(responseCode = "403", description = "Forbidden",
     content = @Content(mediaType = "application/json",
         schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
@@ -251,14 +349,27 @@ public class CardController {
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/my")
     public ResponseEntity<Page<CardDto>> getMyCards(
-            Authentication authentication,
+            @AuthenticationPrincipal JwtPrincipal principal,
+            WebRequest webRequest,
             @RequestParam(required = false) CardStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "3") int size
+            @RequestParam(defaultValue = "3") int size,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived
     ) {
-        log.info("User '{}' requested own cards", authentication.getName());
-        Page<CardDto> cards = service.getCardsByUsername(authentication.getName(), status, page, size);
-        return ResponseEntity.ok(cards);
+        log.info(LogMarkers.SAMPLED, "User '{}' requested own cards", principal.username());
+        Set<CardField> selectedFields = CardField.parse(fields);
+        CardVersionSummary summary = service.getVersionSummaryByHolderId(principal.id());
+        String etag = EtagGenerator.forSummary(summary);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        CardPageCache.Key key = new CardPageCache.Key(principal.id(), status, page, size, selectedFields,
+                includeArchived);
+        Page<CardDto> cards = pageCache.get(key, summary, () -> includeArchived
+                ? service.getCardsWithArchivedByHolderId(principal.id(), status, page, size, selectedFields)
+                : service.getCardsByHolderId(principal.id(), status, page, size, selectedFields));
+        return ResponseEntity.ok().eTag(etag).body(cards);
     }
 
     @Operation(summary = "Get total balance", description = "Returns total balance of user's cards",
@@ -267,15 +378,21 @@ public class CardController {
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(example = "{\"balance\": \"304000.00\"}"))),
+            @ApiResponse(responseCode = "304", description = "Not Modified"),
             @ApiResponse(responseCode = "403", description = "Forbidden",
     content = @Content(mediaType = "application/json",
         schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
     })
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/balance")
-    public ResponseEntity<?> getBalance(Authentication authentication) {
-        log.info("User '{}' requested balance", authentication.getName());
-        return ResponseEntity.ok(Map.of("balance", service.getBalanceByUsername(authentication.getName())));
+    public ResponseEntity<?> getBalance(@AuthenticationPrincipal JwtPrincipal principal, WebRequest webRequest) {
+        log.info(LogMarkers.SAMPLED, "User '{}' requested balance", principal.username());
+        String etag = EtagGenerator.forSummary(service.getVersionSummaryByHolderId(principal.id()));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag)
+                .body(Map.of("balance", service.getBalanceByHolderId(principal.id())));
     }
 
     @Operation(summary = "Transfer funds", description = "Transfer funds between own cards",
@@ -300,10 +417,11 @@ public class CardController {
     })
     @PreAuthorize("hasRole('USER')")
     @PostMapping("/transfer")
-    public ResponseEntity<?> transfer(@Valid @RequestBody TransferDto transferDto, Authentication authentication) {
-        log.info("User '{}' requested transfer {} from card {} to card {}", authentication.getName(),
+    public ResponseEntity<?> transfer(@Valid @RequestBody TransferDto transferDto,
+                                      @AuthenticationPrincipal JwtPrincipal principal) {
+        log.info("User '{}' requested transfer {} from card {} to card {}", principal.username(),
                 transferDto.getAmount(), transferDto.getFromCardId(), transferDto.getToCardId());
-        service.transfer(transferDto, authentication.getName());
+        service.transfer(transferDto, principal.id());
         return ResponseEntity.ok(Map.of("message", "Transfer completed successfully"));
     }
 
@@ -326,9 +444,9 @@ public class CardController {
     })
     @PreAuthorize("hasRole('USER')")
     @PatchMapping("/{id}/request-block")
-    public ResponseEntity<?> requestBlock(@PathVariable Long id, Authentication authentication) {
-        log.info("User '{}' requested to block card ID: {}", authentication.getName(), id);
-        service.requestBlock(id, authentication.getName());
+    public ResponseEntity<?> requestBlock(@PathVariable Long id, @AuthenticationPrincipal JwtPrincipal principal) {
+        log.info("User '{}' requested to block card ID: {}", principal.username(), id);
+        service.requestBlock(id, principal.id());
         return ResponseEntity.ok(Map.of("message", "Block request submitted"));
     }
 }
@@ -0,0 +1,43 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.ProfilingSummary;
+import com.example.bankcards.profiling.JfrProfiler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/profiling")
+@RequiredArgsConstructor
+@Tag(name = "Profiling", description = "Continuous JFR profiling")
+public class ProfilingController {
+    private final JfrProfiler profiler;
+
+    @Operation(summary = "Get profiling summary",
+            description = "Timings of transfers, card crypto, JWT verification and card mapping, lock contention, "
+                    + "allocation hot spots and the slowest events over the rolling window",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProfilingSummary.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/summary")
+    public ResponseEntity<ProfilingSummary> getSummary() {
+        return ResponseEntity.ok(profiler.summary());
+    }
+}
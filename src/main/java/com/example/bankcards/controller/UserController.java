@@ -1,8 +1,14 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BulkDeleteResult;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.UserImportResult;
+import com.example.bankcards.dto.UserSelectionDto;
 import com.example.bankcards.dto.UserUpdateDto;
+import com.example.bankcards.logging.LogMarkers;
+import com.example.bankcards.service.UserBulkService;
+import com.example.bankcards.service.UserImportService;
 import com.example.bankcards.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,6 +25,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 
 @RestController
@@ -28,6 +36,8 @@ import java.util.Collection;
 @Tag(name = "Users", description = "User management operations")
 public class UserController {
     private final UserService service;
+    private final UserImportService importService;
+    private final UserBulkService bulkService;
 
     @Operation(summary = "Get user by ID", description = "Get user details by ID",
             security = @SecurityRequirement(name = "bearerAuth"))
@@ -44,7 +54,7 @@ public class UserController {
     })
     @GetMapping(path = "/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long id, Authentication authentication) {
-        log.info("User '{}' requested user ID: {}", authentication.getName(), id);
+        log.info(LogMarkers.SAMPLED, "User '{}' requested user ID: {}", authentication.getName(), id);
         return ResponseEntity.ok(service.getById(id));
     }
 
@@ -97,7 +107,7 @@ public class UserController {
     })
     @GetMapping
     public ResponseEntity<Collection<UserDto>> getAllUsers(Authentication authentication) {
-        log.info("User '{}' requested all users", authentication.getName());
+        log.info(LogMarkers.SAMPLED, "User '{}' requested all users", authentication.getName());
         return ResponseEntity.ok(service.getAll());
     }
 
@@ -133,6 +143,49 @@ public class UserController {
         return new ResponseEntity<>(service.create(userDto), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Import users", description = "Create users in bulk from a CSV file with the header "
+            + "username,password,roles; multiple roles are separated by |. Rows that cannot be imported are "
+            + "listed with their line number", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserImportResult.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": \"CSV header must be 'username,password,roles'\"}"))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+    content = @Content(mediaType = "application/json",
+        schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
+    })
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResult> importUsers(InputStream csv, Authentication authentication)
+            throws IOException {
+        log.info("User '{}' requested bulk user import", authentication.getName());
+        return ResponseEntity.ok(importService.importCsv(csv));
+    }
+
+    @Operation(summary = "Delete users in bulk", description = "Delete users by ids together with their cards. " +
+            "They can no longer sign in and are purged from the database later; their usernames stay taken until then",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkDeleteResult.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{\"message\": \"Validation failed\", \"details\": " +
+                                    "[\"ids: At least one user id must be given\"]}"))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+    content = @Content(mediaType = "application/json",
+        schema = @Schema(example = "{\"message\": \"Access Denied\"}")))
+    })
+    @PostMapping(path = "/bulk-delete")
+    public ResponseEntity<BulkDeleteResult> bulkDelete(@Valid @RequestBody UserSelectionDto request,
+                                                       Authentication authentication) {
+        log.info("User '{}' requested bulk delete of {} users", authentication.getName(), request.getIds().size());
+        return ResponseEntity.ok(bulkService.softDelete(request.getIds()));
+    }
+
     @Operation(summary = "Update user", description = "Update user details",
             security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses({
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * Rows soft-deleted by a bulk request; rows that were already deleted or do not exist are not listed.
+ */
+public record BulkDeleteResult(int deleted, List<Long> deletedIds) {
+}
@@ -1,12 +1,14 @@
 package com.example.bankcards.dto;
 
 import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -23,4 +25,8 @@ public class CardDto {
     private CardStatus status;
     @Schema(example = "10500.51")
     private BigDecimal balance;
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Set<CardField> includedFields;
 }
@@ -0,0 +1,61 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.exception.UnknownFieldException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of {@link CardDto} that can be requested with the {@code fields} query parameter.
+ */
+public enum CardField {
+    ID("id"),
+    NUMBER("number"),
+    HOLDER_NAME("holderName"),
+    EXPIRATION_DATE("expirationDate"),
+    STATUS("status"),
+    BALANCE("balance");
+
+    public static final Set<CardField> ALL = Collections.unmodifiableSet(EnumSet.allOf(CardField.class));
+
+    private final String jsonName;
+
+    CardField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parses a comma-separated list of JSON field names. An absent or blank list selects all fields.
+     */
+    public static Set<CardField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<CardField> selected = EnumSet.noneOf(CardField.class);
+        for (String name : fields.split(",")) {
+            selected.add(fromJsonName(name.trim()));
+        }
+        return selected.size() == ALL.size() ? ALL : Collections.unmodifiableSet(selected);
+    }
+
+    /**
+     * Whether the selection needs the card entity: the number must be decrypted and the holder joined.
+     */
+    public static boolean requiresEntity(Set<CardField> fields) {
+        return fields.contains(NUMBER) || fields.contains(HOLDER_NAME);
+    }
+
+    private static CardField fromJsonName(String name) {
+        for (CardField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new UnknownFieldException(name);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.CardStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Selects cards for bulk operations; all given criteria must match.
+ */
+@Getter
+@Setter
+public class CardFilter {
+    @Schema(example = "2")
+    private Long holderId;
+
+    @Schema(example = "ACTIVE")
+    private CardStatus status;
+
+    @Schema(example = "2030-01-01")
+    private LocalDate expiresBefore;
+
+    @Schema(hidden = true)
+    public boolean isEmpty() {
+        return holderId == null && status == null && expiresBefore == null;
+    }
+}
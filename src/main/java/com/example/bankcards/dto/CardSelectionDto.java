@@ -0,0 +1,32 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Set;
+
+/**
+ * Cards selected for a bulk operation, either by id or by a filter but not both.
+ */
+@Getter
+@Setter
+public class CardSelectionDto {
+    @Size(max = 50_000, message = "At most 50000 card ids can be changed per request")
+    @Schema(example = "[1, 2, 3]")
+    private Set<Long> ids;
+
+    @Valid
+    private CardFilter filter;
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "Either a non-empty list of ids or a non-empty filter must be given")
+    public boolean isSelectionValid() {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = filter != null && !filter.isEmpty();
+        return byIds != byFilter;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.CardStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CardStatusChangeDto extends CardSelectionDto {
+    @NotNull(message = "Target status must be provided")
+    @Schema(example = "BLOCKED")
+    private CardStatus status;
+}
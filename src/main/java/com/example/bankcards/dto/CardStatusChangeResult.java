@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.util.List;
+
+/**
+ * Cards moved to {@code status}; cards that already had it or do not exist are not listed.
+ */
+public record CardStatusChangeResult(CardStatus status, int changed, List<Long> changedIds) {
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Aggregated view of the continuous JFR recording over the rolling window {@code since}..{@code until}.
+ */
+public record ProfilingSummary(boolean enabled,
+                               Instant since,
+                               Instant until,
+                               List<Timing> events,
+                               List<Timing> lockContention,
+                               List<Allocation> allocations,
+                               List<SlowEvent> slowEvents) {
+
+    public record Timing(String name, long count, double totalMs, double avgMs, double maxMs) {
+    }
+
+    public record Allocation(String site, long samples, long bytes) {
+    }
+
+    public record SlowEvent(Instant start, String event, double durationMs, String thread, String detail) {
+    }
+}
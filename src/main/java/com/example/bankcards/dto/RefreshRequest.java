@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    @NotBlank
+    @Schema(example = "<refresh_token>")
+    private String refreshToken;
+}
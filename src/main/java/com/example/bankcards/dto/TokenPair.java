@@ -0,0 +1,7 @@
+package com.example.bankcards.dto;
+
+/**
+ * Short-lived access token together with the refresh token that can renew it once.
+ */
+public record TokenPair(String token, String refreshToken) {
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. {@code errors} holds at most the configured number of row errors,
+ * {@code rejected} counts all of them.
+ */
+public record UserImportResult(int imported, int rejected, List<RowError> errors) {
+
+    /**
+     * @param line 1-based line of the CSV file, the header being line 1
+     */
+    public record RowError(long line, String username, String message) {
+    }
+}
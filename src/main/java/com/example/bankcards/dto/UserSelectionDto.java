@@ -0,0 +1,18 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Set;
+
+@Getter
+@Setter
+public class UserSelectionDto {
+    @NotEmpty(message = "At least one user id must be given")
+    @Size(max = 50_000, message = "At most 50000 user ids can be deleted per request")
+    @Schema(example = "[2, 3]")
+    private Set<Long> ids;
+}
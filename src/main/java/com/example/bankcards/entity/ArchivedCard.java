@@ -0,0 +1,49 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A blocked or expired card moved out of {@code cards} by {@code CardArchiveJob}. Archived cards keep
+ * their id and are read-only.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "cards_archive")
+public class ArchivedCard {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "card_number", nullable = false)
+    private String number;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "card_holder_id", nullable = false)
+    private User holder;
+
+    @Column(name = "expiration_date", nullable = false)
+    private LocalDate expirationDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private CardStatus status;
+
+    @Column(name = "balance", precision = 19, scale = 2, nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "status_changed_at", nullable = false)
+    private Instant statusChangedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
@@ -3,14 +3,17 @@ package com.example.bankcards.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Getter
 @Setter
 @Entity
+@SQLRestriction("deleted_at is null")
 @Table(name = "cards")
 public class Card {
     @Id
@@ -35,6 +38,27 @@ public class Card {
     @Column(name = "balance", precision = 19, scale = 2, nullable = false)
     private BigDecimal balance;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    /**
+     * When the status last changed; {@code CardArchiveJob} moves cards that stayed blocked or expired
+     * long enough to {@code cards_archive}.
+     */
+    @Column(name = "status_changed_at", nullable = false)
+    private Instant statusChangedAt;
+
+    public void setStatus(CardStatus status) {
+        if (this.status != status) {
+            this.statusChangedAt = Instant.now();
+        }
+        this.status = status;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
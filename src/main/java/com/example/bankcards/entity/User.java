@@ -4,13 +4,16 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.util.*;
 
 @Getter
 @Setter
 @ToString(exclude = "password")
 @Entity
+@SQLRestriction("deleted_at is null")
 @Table(name = "users")
 public class User {
     @Id
@@ -24,6 +27,16 @@ public class User {
     @Column(name = "password", nullable = false)
     private String password;
 
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
+    /**
+     * Set when the row is soft-deleted; such rows are invisible to the application until
+     * {@code PurgeJob} removes them.
+     */
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles",
             joinColumns = {@JoinColumn(name = "user_id")},
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class CardVersionMismatchException extends RuntimeException {
+    public CardVersionMismatchException(Long id) {
+        super("Card with ID: " + id + " has been modified, reload it and retry");
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.exception;
+
+import lombok.Getter;
+
+@Getter
+public class PasswordHashingOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingOverloadedException(long retryAfterSeconds) {
+        super("Too many login attempts in progress, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class UnknownFieldException extends RuntimeException {
+    public UnknownFieldException(String field) {
+        super("Unknown field '" + field + "'");
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Async appender that, once the queue fills past the discarding threshold, drops every event
+ * below ERROR instead of only TRACE to INFO, so request threads never wait on log I/O for
+ * warnings either. ERROR events are always queued.
+ */
+public class ErrorPreservingAsyncAppender extends AsyncAppender {
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return !event.getLevel().isGreaterOrEqual(Level.ERROR);
+    }
+}
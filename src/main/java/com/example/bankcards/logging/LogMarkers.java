@@ -0,0 +1,15 @@
+package com.example.bankcards.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+    /**
+     * Marks high-frequency lines that {@link SamplingTurboFilter} may drop once their
+     * per-second allowance is used up. Use it for read paths, never for audit-relevant events.
+     */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogMarkers() {
+    }
+}
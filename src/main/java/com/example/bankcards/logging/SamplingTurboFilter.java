@@ -0,0 +1,54 @@
+package com.example.bankcards.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through at most {@code permitsPerSecond} events per message format carrying the
+ * {@link LogMarkers#SAMPLED} marker and denies the rest before the message is formatted.
+ * Events of level WARN and above are never sampled.
+ * <p>
+ * Each format has one counter packing the current second (upper bits) and the number of
+ * events let through in it (lower 20 bits), updated with CAS.
+ */
+@Setter
+public class SamplingTurboFilter extends TurboFilter {
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private int permitsPerSecond = 10;
+
+    // keyed by message format; formats are compile-time constants, so the map stays small
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || format == null || !marker.contains(LogMarkers.SAMPLED)
+                || level.isGreaterOrEqual(Level.WARN) || !logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        return tryAcquire(format, System.currentTimeMillis() / 1000) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    boolean tryAcquire(String format, long second) {
+        AtomicLong window = windows.computeIfAbsent(format, k -> new AtomicLong());
+        while (true) {
+            long current = window.get();
+            long count = (current >>> COUNT_BITS) == second ? current & COUNT_MASK : 0;
+            if (count >= permitsPerSecond) {
+                return false;
+            }
+            if (window.compareAndSet(current, (second << COUNT_BITS) | (count + 1))) {
+                return true;
+            }
+        }
+    }
+}
@@ -1,28 +1,79 @@
 package com.example.bankcards.mapper;
 
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.entity.ArchivedCard;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.profiling.CardMappingEvent;
+import com.example.bankcards.repository.projection.CardSummary;
 import com.example.bankcards.util.CardNumberMasker;
 import com.example.bankcards.util.EncryptionUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class CardMapper {
     private final EncryptionUtil encryptionUtil;
 
     public CardDto mapToDto(Card card) {
-        String decryptedNumber = encryptionUtil.decrypt(card.getNumber());
-        String maskedNumber = CardNumberMasker.maskCardNumber(decryptedNumber);
+        return mapToDto(card, CardField.ALL);
+    }
+
+    public CardDto mapToDto(Card card, Set<CardField> fields) {
+        CardMappingEvent event = new CardMappingEvent();
+        event.begin();
+        CardDto cardDto = new CardDto();
+        boolean decrypted = fields.contains(CardField.NUMBER);
+        if (decrypted) {
+            String decryptedNumber = encryptionUtil.decrypt(card.getNumber());
+            cardDto.setNumber(CardNumberMasker.maskCardNumber(decryptedNumber));
+        }
+        if (fields.contains(CardField.HOLDER_NAME)) {
+            cardDto.setHolderName(card.getHolder().getUsername());
+        }
+        cardDto.setId(card.getId());
+        cardDto.setExpirationDate(card.getExpirationDate());
+        cardDto.setStatus(card.getStatus());
+        cardDto.setBalance(card.getBalance());
+        cardDto.setVersion(card.getVersion());
+        setIncludedFields(cardDto, fields);
+        event.finish(card.getId() != null ? card.getId() : 0L, fields.size(), decrypted);
+        return cardDto;
+    }
 
+    public CardDto mapToDto(ArchivedCard card, Set<CardField> fields) {
         CardDto cardDto = new CardDto();
+        if (fields.contains(CardField.NUMBER)) {
+            cardDto.setNumber(CardNumberMasker.maskCardNumber(encryptionUtil.decrypt(card.getNumber())));
+        }
+        if (fields.contains(CardField.HOLDER_NAME)) {
+            cardDto.setHolderName(card.getHolder().getUsername());
+        }
         cardDto.setId(card.getId());
-        cardDto.setNumber(maskedNumber);
-        cardDto.setHolderName(card.getHolder().getUsername());
         cardDto.setExpirationDate(card.getExpirationDate());
         cardDto.setStatus(card.getStatus());
         cardDto.setBalance(card.getBalance());
+        cardDto.setVersion(card.getVersion());
+        setIncludedFields(cardDto, fields);
+        return cardDto;
+    }
+
+    public CardDto mapToDto(CardSummary summary, Set<CardField> fields) {
+        CardDto cardDto = new CardDto();
+        cardDto.setId(summary.id());
+        cardDto.setExpirationDate(summary.expirationDate());
+        cardDto.setStatus(summary.status());
+        cardDto.setBalance(summary.balance());
+        setIncludedFields(cardDto, fields);
         return cardDto;
     }
+
+    private static void setIncludedFields(CardDto cardDto, Set<CardField> fields) {
+        if (fields != CardField.ALL) {
+            cardDto.setIncludedFields(fields);
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.bankcards.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the current {@link QueryStats} scope. Hibernate creates one
+ * instance per session, so the start timestamps need no synchronization.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.recordJdbcTime(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.recordJdbcTime(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares against the current {@link QueryStats} scope.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        QueryStats.recordStatement(sql);
+        return sql;
+    }
+}
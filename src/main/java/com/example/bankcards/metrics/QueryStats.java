@@ -0,0 +1,72 @@
+package com.example.bankcards.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements and JDBC time accumulated on the current thread between {@link #start()} and
+ * {@link #stop()}. Scopes nest: statements recorded in an inner scope also count for the
+ * outer ones, so a test can measure a whole MockMvc call while the request filter measures
+ * the request.
+ */
+public final class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryStats parent;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statements;
+    private long jdbcNanos;
+
+    private QueryStats(QueryStats parent) {
+        this.parent = parent;
+    }
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public void stop() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    static void recordStatement(String sql) {
+        for (QueryStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.statements++;
+            stats.statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void recordJdbcTime(long nanos) {
+        for (QueryStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Returns the statement executed most often in this scope, or {@code null} if none was.
+     * The same SQL repeated many times within one request is the signature of an N+1.
+     */
+    public Map.Entry<String, Integer> mostRepeatedStatement() {
+        return statementCounts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public service method with a percentile histogram, tagged by outcome; the timer's count
+ * is the number of invocations per outcome. The outcome tag is {@code success} or the simple name of
+ * the thrown exception, e.g. {@code InsufficientFundsException}, so business rejections can be told
+ * apart from errors. Timers are registered once per method and outcome.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String TIMER_NAME = "bankcards.service";
+    static final String SUCCESS = "success";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.example.bankcards.service.*Service.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = SUCCESS;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            timers.computeIfAbsent(new TimerKey(method, outcome), this::timer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder(TIMER_NAME)
+                .description("Service method latency")
+                .tags("service", key.method().getDeclaringClass().getSimpleName(),
+                        "method", key.method().getName(), "outcome", key.outcome())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record TimerKey(Method method, String outcome) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.config.SqlStatsConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the SQL statements and JDBC time of each request. Counts are always recorded as
+ * metrics per endpoint; with {@code sql-stats.expose-header} they are also returned in
+ * response headers. Requests over their statement budget are logged with the most repeated
+ * statement, which points straight at an N+1.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String JDBC_TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final SqlStatsConfig config;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        QueryStats stats = QueryStats.start();
+        HttpServletResponse target = config.isExposeHeader() ? new HeaderWritingResponse(response, stats) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            stats.stop();
+            if (target instanceof HeaderWritingResponse headerWriting) {
+                headerWriting.writeHeaders();
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + pattern;
+
+        DistributionSummary.builder("bankcards.http.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("bankcards.http.sql.time")
+                .description("JDBC execution time per request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        int budget = config.getBudgets().getOrDefault(endpoint, config.getDefaultBudget());
+        if (stats.getStatements() > budget) {
+            Map.Entry<String, Integer> repeated = stats.mostRepeatedStatement();
+            log.warn("{} executed {} SQL statements ({} ms), budget is {}; most repeated ({}x): {}",
+                    endpoint, stats.getStatements(), TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()),
+                    budget, repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    /**
+     * Adds the statistics headers just before the body starts, when the handler has normally
+     * finished querying; responses without a body get them after the chain returns.
+     */
+    private static class HeaderWritingResponse extends HttpServletResponseWrapper {
+        private final QueryStats stats;
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(JDBC_TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+        }
+    }
+}
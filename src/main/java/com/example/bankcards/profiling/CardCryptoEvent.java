@@ -0,0 +1,31 @@
+package com.example.bankcards.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("bankcards.CardCrypto")
+@Label("Card Number Crypto")
+@Description("Encryption or decryption of a card number")
+@Category({"Bank Cards", "Crypto"})
+@StackTrace(false)
+public class CardCryptoEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Input Length")
+    @DataAmount(DataAmount.BYTES)
+    int inputLength;
+
+    public void finish(String operation, int inputLength) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.inputLength = inputLength;
+            commit();
+        }
+    }
+}
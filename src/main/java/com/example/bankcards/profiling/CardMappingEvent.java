@@ -0,0 +1,33 @@
+package com.example.bankcards.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("bankcards.CardMapping")
+@Label("Card Mapping")
+@Description("Mapping of a card entity to a CardDto")
+@Category({"Bank Cards", "Mapping"})
+@StackTrace(false)
+public class CardMappingEvent extends jdk.jfr.Event {
+    @Label("Card")
+    long cardId;
+
+    @Label("Fields")
+    int fieldCount;
+
+    @Label("Number Decrypted")
+    boolean decrypted;
+
+    public void finish(long cardId, int fieldCount, boolean decrypted) {
+        end();
+        if (shouldCommit()) {
+            this.cardId = cardId;
+            this.fieldCount = fieldCount;
+            this.decrypted = decrypted;
+            commit();
+        }
+    }
+}
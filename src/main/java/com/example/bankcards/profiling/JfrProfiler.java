@@ -0,0 +1,142 @@
+package com.example.bankcards.profiling;
+
+import com.example.bankcards.config.ProfilingConfig;
+import com.example.bankcards.dto.ProfilingSummary;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Always-on in-process profiler. Streams the application JFR events together with JDK lock
+ * contention and allocation samples and folds them into a {@link RollingProfile}.
+ */
+@Component
+@Slf4j
+public class JfrProfiler {
+    private static final String APP_PACKAGE = "com.example.bankcards.";
+    private static final List<String> APP_EVENTS = List.of(
+            "bankcards.Transfer", "bankcards.CardCrypto", "bankcards.JwtVerify", "bankcards.CardMapping");
+    /**
+     * {@code jdk.VirtualThreadPinned} only exists on Java 21 and is ignored by older recorders.
+     */
+    private static final List<String> CONTENTION_EVENTS =
+            List.of("jdk.JavaMonitorEnter", "jdk.ThreadPark", "jdk.VirtualThreadPinned");
+    private static final String ALLOCATION_EVENT = "jdk.ObjectAllocationSample";
+    private static final Set<String> IMPLICIT_FIELDS = Set.of("startTime", "duration", "eventThread", "stackTrace");
+
+    private final ProfilingConfig config;
+    private final RollingProfile profile;
+    private RecordingStream stream;
+
+    public JfrProfiler(ProfilingConfig config) {
+        this.config = config;
+        this.profile = new RollingProfile(config.getWindow(), config.getBucket(), config.getTopN(),
+                config.getSlowEventThreshold(), Clock.systemUTC());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("JFR profiling is disabled");
+            return;
+        }
+        stream = new RecordingStream();
+        stream.setMaxAge(config.getMaxAge());
+        stream.setReuse(true);
+        for (String event : APP_EVENTS) {
+            stream.enable(event).withThreshold(config.getEventThreshold());
+            stream.onEvent(event, this::onAppEvent);
+        }
+        for (String event : CONTENTION_EVENTS) {
+            stream.enable(event).withThreshold(config.getLockThreshold()).withStackTrace();
+            stream.onEvent(event, this::onContention);
+        }
+        stream.enable(ALLOCATION_EVENT).with("throttle", config.getAllocationThrottle()).withStackTrace();
+        stream.onEvent(ALLOCATION_EVENT, this::onAllocation);
+        stream.onError(e -> log.warn("JFR stream error: {}", e.getMessage()));
+        stream.startAsync();
+        log.info("JFR profiling started, window {}", config.getWindow());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public ProfilingSummary summary() {
+        return profile.summarize(stream != null);
+    }
+
+    private void onAppEvent(RecordedEvent event) {
+        profile.recordEvent(event.getEventType().getName(), event.getStartTime(), event.getDuration(),
+                threadName(event), () -> describe(event));
+    }
+
+    private void onContention(RecordedEvent event) {
+        String owner = switch (event.getEventType().getName()) {
+            case "jdk.JavaMonitorEnter" -> className(event.getClass("monitorClass"));
+            case "jdk.ThreadPark" -> className(event.getClass("parkedClass"));
+            default -> "pinned virtual thread";
+        };
+        String site = owner + " at " + frame(event.getStackTrace());
+        profile.recordContention(site, event.getStartTime(), event.getDuration());
+    }
+
+    private void onAllocation(RecordedEvent event) {
+        String site = className(event.getClass("objectClass")) + " at " + frame(event.getStackTrace());
+        profile.recordAllocation(site, event.getStartTime(), event.getLong("weight"));
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder detail = new StringBuilder();
+        event.getFields().forEach(field -> {
+            String name = field.getName();
+            if (!IMPLICIT_FIELDS.contains(name)) {
+                if (!detail.isEmpty()) {
+                    detail.append(", ");
+                }
+                detail.append(name).append('=').append((Object) event.getValue(name));
+            }
+        });
+        return detail.toString();
+    }
+
+    private static String className(RecordedClass type) {
+        return type != null ? type.getName() : "unknown";
+    }
+
+    private static String threadName(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return thread != null ? thread.getJavaName() : null;
+    }
+
+    /**
+     * Attributes a sample to the innermost application frame, falling back to the top frame
+     * for samples taken entirely inside library code.
+     */
+    private static String frame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame selected = frames.stream()
+                .filter(f -> f.getMethod().getType().getName().startsWith(APP_PACKAGE))
+                .findFirst()
+                .orElse(frames.get(0));
+        return selected.getMethod().getType().getName() + "." + selected.getMethod().getName()
+                + ":" + selected.getLineNumber();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("bankcards.JwtVerify")
+@Label("JWT Verification")
+@Description("Verification of an access token, from the verified-token cache or by signature check")
+@Category({"Bank Cards", "Security"})
+@StackTrace(false)
+public class JwtVerifyEvent extends jdk.jfr.Event {
+    @Label("Cache Hit")
+    boolean cacheHit;
+
+    @Label("Valid")
+    boolean valid;
+
+    public void finish(boolean cacheHit, boolean valid) {
+        end();
+        if (shouldCommit()) {
+            this.cacheHit = cacheHit;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.bankcards.profiling;
+
+import com.example.bankcards.dto.ProfilingSummary;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * Rolling aggregate of profiling samples, kept as a ring of fixed-length time buckets so that
+ * memory stays bounded and old data falls out of the window without a cleanup pass.
+ * Writes come from the single JFR stream thread, reads from the admin endpoint.
+ */
+public class RollingProfile {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    private final int topN;
+    private final long slowThresholdNanos;
+
+    public RollingProfile(Duration window, Duration bucket, int topN, Duration slowThreshold, Clock clock) {
+        this.clock = clock;
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = new Bucket[(int) Math.max(1, window.toMillis() / bucketMillis)];
+        this.topN = topN;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * @param detail describes the event; only called for events at or above the slow-event threshold
+     */
+    public synchronized void recordEvent(String event, Instant start, Duration duration, String thread,
+                                         Supplier<String> detail) {
+        Bucket bucket = bucketFor(start);
+        if (bucket == null) {
+            return;
+        }
+        long nanos = duration.toNanos();
+        bucket.events.computeIfAbsent(event, k -> new Stats()).add(nanos);
+        if (nanos >= slowThresholdNanos) {
+            bucket.slowEvents.add(new ProfilingSummary.SlowEvent(start, event, nanos / NANOS_PER_MILLI, thread, detail.get()));
+            if (bucket.slowEvents.size() > topN) {
+                bucket.slowEvents.poll();
+            }
+        }
+    }
+
+    public synchronized void recordContention(String site, Instant start, Duration duration) {
+        Bucket bucket = bucketFor(start);
+        if (bucket != null) {
+            bucket.contention.computeIfAbsent(site, k -> new Stats()).add(duration.toNanos());
+        }
+    }
+
+    public synchronized void recordAllocation(String site, Instant start, long bytes) {
+        Bucket bucket = bucketFor(start);
+        if (bucket != null) {
+            long[] totals = bucket.allocations.computeIfAbsent(site, k -> new long[2]);
+            totals[0]++;
+            totals[1] += bytes;
+        }
+    }
+
+    public synchronized ProfilingSummary summarize(boolean enabled) {
+        long current = clock.millis() / bucketMillis;
+        long oldest = current - buckets.length + 1;
+
+        Map<String, Stats> events = new HashMap<>();
+        Map<String, Stats> contention = new HashMap<>();
+        Map<String, long[]> allocations = new HashMap<>();
+        List<ProfilingSummary.SlowEvent> slowEvents = new ArrayList<>();
+        for (Bucket bucket : buckets) {
+            if (bucket.index < oldest || bucket.index > current) {
+                continue;
+            }
+            bucket.events.forEach((k, v) -> events.computeIfAbsent(k, x -> new Stats()).merge(v));
+            bucket.contention.forEach((k, v) -> contention.computeIfAbsent(k, x -> new Stats()).merge(v));
+            bucket.allocations.forEach((k, v) -> {
+                long[] totals = allocations.computeIfAbsent(k, x -> new long[2]);
+                totals[0] += v[0];
+                totals[1] += v[1];
+            });
+            slowEvents.addAll(bucket.slowEvents);
+        }
+
+        return new ProfilingSummary(
+                enabled,
+                Instant.ofEpochMilli(oldest * bucketMillis),
+                clock.instant(),
+                toTimings(events),
+                toTimings(contention),
+                allocations.entrySet().stream()
+                        .map(e -> new ProfilingSummary.Allocation(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                        .sorted(Comparator.comparingLong(ProfilingSummary.Allocation::bytes).reversed())
+                        .limit(topN)
+                        .toList(),
+                slowEvents.stream()
+                        .sorted(Comparator.comparingDouble(ProfilingSummary.SlowEvent::durationMs).reversed())
+                        .limit(topN)
+                        .toList());
+    }
+
+    private List<ProfilingSummary.Timing> toTimings(Map<String, Stats> stats) {
+        return stats.entrySet().stream()
+                .map(e -> e.getValue().toTiming(e.getKey()))
+                .sorted(Comparator.comparingDouble(ProfilingSummary.Timing::totalMs).reversed())
+                .limit(topN)
+                .toList();
+    }
+
+    /**
+     * Returns the bucket covering {@code time}, recycling it if it still holds an older period,
+     * or {@code null} if the time has already left the window.
+     */
+    private Bucket bucketFor(Instant time) {
+        long index = time.toEpochMilli() / bucketMillis;
+        if (index <= clock.millis() / bucketMillis - buckets.length) {
+            return null;
+        }
+        Bucket bucket = buckets[(int) Math.floorMod(index, (long) buckets.length)];
+        if (bucket.index < index) {
+            bucket.reset(index);
+        } else if (bucket.index > index) {
+            return null;
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        private long index = Long.MIN_VALUE;
+        private final Map<String, Stats> events = new HashMap<>();
+        private final Map<String, Stats> contention = new HashMap<>();
+        private final Map<String, long[]> allocations = new HashMap<>();
+        private final PriorityQueue<ProfilingSummary.SlowEvent> slowEvents =
+                new PriorityQueue<>(Comparator.comparingDouble(ProfilingSummary.SlowEvent::durationMs));
+
+        private void reset(long index) {
+            this.index = index;
+            events.clear();
+            contention.clear();
+            allocations.clear();
+            slowEvents.clear();
+        }
+    }
+
+    private static final class Stats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        private void merge(Stats other) {
+            count += other.count;
+            totalNanos += other.totalNanos;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+        }
+
+        private ProfilingSummary.Timing toTiming(String name) {
+            return new ProfilingSummary.Timing(name, count,
+                    totalNanos / NANOS_PER_MILLI,
+                    count == 0 ? 0 : totalNanos / NANOS_PER_MILLI / count,
+                    maxNanos / NANOS_PER_MILLI);
+        }
+    }
+}
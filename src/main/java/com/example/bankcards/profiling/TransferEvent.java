@@ -0,0 +1,43 @@
+package com.example.bankcards.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.math.BigDecimal;
+
+@Name("bankcards.Transfer")
+@Label("Card Transfer")
+@Description("Transfer between two cards of the same holder")
+@Category({"Bank Cards", "Service"})
+@StackTrace(false)
+public class TransferEvent extends jdk.jfr.Event {
+    @Label("From Card")
+    long fromCardId;
+
+    @Label("To Card")
+    long toCardId;
+
+    @Label("Holder")
+    long holderId;
+
+    @Label("Amount")
+    String amount;
+
+    @Label("Outcome")
+    String outcome;
+
+    public void finish(Long fromCardId, Long toCardId, Long holderId, BigDecimal amount, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.fromCardId = fromCardId != null ? fromCardId : 0L;
+            this.toCardId = toCardId != null ? toCardId : 0L;
+            this.holderId = holderId != null ? holderId : 0L;
+            this.amount = amount != null ? amount.toPlainString() : null;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.ArchivedCard;
+import com.example.bankcards.entity.CardStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedCardRepository extends JpaRepository<ArchivedCard, Long> {
+    /**
+     * Archived cards of one holder in id order, optionally of one status, with holders fetched in the same
+     * query. Takes a plain offset because archived cards are appended after the holder's live cards.
+     */
+    @Query("select a from ArchivedCard a join fetch a.holder " +
+            "where a.holder.id = :holderId and (:status is null or a.status = :status) " +
+            "order by a.id limit :limit offset :offset")
+    List<ArchivedCard> findByHolderId(Long holderId, CardStatus status, long offset, int limit);
+
+    @Query("select count(a) from ArchivedCard a where a.holder.id = :holderId and (:status is null or a.status = :status)")
+    long countByHolderId(Long holderId, CardStatus status);
+}
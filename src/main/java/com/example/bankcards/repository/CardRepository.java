@@ -2,19 +2,120 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
-import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.projection.CardIdRange;
+import com.example.bankcards.repository.projection.CardSummary;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import com.example.bankcards.repository.projection.StatementLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
     boolean existsByNumber(String cardNumber);
-    List<Card> findByHolderUsername(String username);
-    Page<Card> findByHolder(User user, Pageable pageable);
+    /**
+     * Lookups that know the holder go through here so that, with {@code cards} hash-partitioned by
+     * holder, the planner prunes to a single partition.
+     */
+    Optional<Card> findByIdAndHolderId(Long id, Long holderId);
 
-    Page<Card> findByHolderAndStatus(User user, CardStatus status, Pageable pageable);
+    Page<Card> findByHolderId(Long holderId, Pageable pageable);
+
+    Page<Card> findByHolderIdAndStatus(Long holderId, CardStatus status, Pageable pageable);
+
+    /**
+     * Total balance of the holder's live and archived cards in one query.
+     */
+    @Query("select coalesce(sum(c.balance), 0) + " +
+            "(select coalesce(sum(a.balance), 0) from ArchivedCard a where a.holder.id = :holderId) " +
+            "from Card c where c.holder.id = :holderId")
+    BigDecimal sumBalanceByHolderId(Long holderId);
+
+    @Query("select new com.example.bankcards.repository.projection.CardSummary(" +
+            "c.id, c.expirationDate, c.status, c.balance) from Card c")
+    List<CardSummary> findAllSummaries();
+
+    @Query(value = "select new com.example.bankcards.repository.projection.CardSummary(" +
+            "c.id, c.expirationDate, c.status, c.balance) from Card c where c.holder.id = :holderId",
+            countQuery = "select count(c) from Card c where c.holder.id = :holderId")
+    Page<CardSummary> findSummariesByHolderId(Long holderId, Pageable pageable);
+
+    @Query(value = "select new com.example.bankcards.repository.projection.CardSummary(" +
+            "c.id, c.expirationDate, c.status, c.balance) from Card c " +
+            "where c.holder.id = :holderId and c.status = :status",
+            countQuery = "select count(c) from Card c where c.holder.id = :holderId and c.status = :status")
+    Page<CardSummary> findSummariesByHolderIdAndStatus(Long holderId, CardStatus status, Pageable pageable);
+
+    @Query("select c.holder.id from Card c where c.id = :id")
+    Optional<Long> findHolderIdById(Long id);
+
+    @Query("select c.version from Card c where c.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select new com.example.bankcards.repository.projection.CardVersionSummary(" +
+            "count(c), coalesce(max(c.id), 0L), coalesce(sum(c.version), 0L), " +
+            "(select u.tokenVersion from User u where u.id = :holderId)) " +
+            "from Card c where c.holder.id = :holderId")
+    CardVersionSummary summarizeVersionsByHolderId(Long holderId);
+
+    /**
+     * Bumps the versions of the holder's cards, whose representations include the holder's username.
+     */
+    @Modifying
+    @Query("update Card c set c.version = c.version + 1 where c.holder.id = :holderId")
+    int touchByHolderId(Long holderId);
+
+    @Modifying
+    @Query("update Card c set c.deletedAt = :now, c.version = c.version + 1 where c.id = :id and c.deletedAt is null")
+    int softDeleteById(Long id, Instant now);
+
+    @Modifying
+    @Query("update Card c set c.deletedAt = :now, c.version = c.version + 1 " +
+            "where c.holder.id = :holderId and c.deletedAt is null")
+    int softDeleteByHolderId(Long holderId, Instant now);
+
+    @Query("select new com.example.bankcards.repository.projection.CardIdRange(" +
+            "coalesce(min(c.id), 0L), coalesce(max(c.id), 0L)) from Card c")
+    CardIdRange findIdRange();
+
+    /**
+     * Expires the active cards with ids in {@code [fromId, toId)} in its own transaction. The version is
+     * bumped so that a transfer which loaded one of these cards before the update fails its optimistic
+     * check instead of writing the card back as active.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Card c set c.status = com.example.bankcards.entity.CardStatus.EXPIRED, " +
+            "c.statusChangedAt = current_instant, c.version = c.version + 1 " +
+            "where c.id >= :fromId and c.id < :toId and c.expirationDate < :today " +
+            "and c.status = com.example.bankcards.entity.CardStatus.ACTIVE")
+    int expireRange(Long fromId, Long toId, LocalDate today);
+
+    /**
+     * Cursor over the cards of one holder partition in holder order, starting after {@code afterHolderId}.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.bankcards.repository.projection.StatementLine(" +
+            "u.id, u.username, c.id, c.number, c.expirationDate, c.status, c.balance) " +
+            "from Card c join c.holder u " +
+            "where mod(u.id, :partitions) = :partition and u.id > :afterHolderId order by u.id, c.id")
+    Stream<StatementLine> streamStatementLines(int partitions, int partition, Long afterHolderId);
 }
@@ -0,0 +1,23 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.RevokedAccessToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String> {
+    List<RevokedAccessToken> findByExpiresAtAfter(Instant now);
+
+    List<RevokedAccessToken> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedAccessToken t where t.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
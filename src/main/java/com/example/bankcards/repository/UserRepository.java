@@ -2,11 +2,26 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String number);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(Long id);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePasswordById(Long id, String password);
+
+    @Modifying
+    @Query("update User u set u.deletedAt = :now, u.tokenVersion = u.tokenVersion + 1 " +
+            "where u.id = :id and u.deletedAt is null")
+    int softDeleteById(Long id, Instant now);
 }
@@ -0,0 +1,7 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * Lowest and highest card id, both zero when there are no cards.
+ */
+public record CardIdRange(Long minId, Long maxId) {
+}
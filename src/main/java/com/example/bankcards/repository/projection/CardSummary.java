@@ -0,0 +1,12 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Scalar card columns that can be read without decrypting the number or joining the holder.
+ */
+public record CardSummary(Long id, LocalDate expirationDate, CardStatus status, BigDecimal balance) {
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.repository.projection;
+
+/**
+ * Aggregated version stamp of all cards owned by a user. Any insert, update or delete
+ * of one of the user's cards changes at least one of the components, and a rename of the
+ * user, whose username every card shows as its holder name, changes the holder version.
+ */
+public record CardVersionSummary(Long count, Long maxId, Long versionSum, Integer holderVersion) {
+}
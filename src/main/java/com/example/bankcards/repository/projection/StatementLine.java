@@ -0,0 +1,13 @@
+package com.example.bankcards.repository.projection;
+
+import com.example.bankcards.entity.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One card of a statement together with its holder, streamed in holder order.
+ */
+public record StatementLine(Long holderId, String username, Long cardId, String number,
+                            LocalDate expirationDate, CardStatus status, BigDecimal balance) {
+}
@@ -0,0 +1,126 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.entity.RevokedAccessToken;
+import com.example.bankcards.repository.RevokedAccessTokenRepository;
+import com.example.bankcards.util.BloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of revoked access token ids (jti) so the request path needs no database I/O.
+ * A Bloom filter answers the common "not revoked" case; its positives are confirmed against
+ * an exact set, so a false positive never rejects a valid token.
+ * <p>
+ * The view is rebuilt from {@code revoked_access_tokens} on startup and periodically, and
+ * revocations made by other nodes are pulled in every {@code jwt.revocation.refresh-ms}.
+ * The initial load runs as a lifecycle phase before the web server starts rather than in
+ * {@code @PostConstruct}, so a bare context refresh (AOT processing, the CDS training run)
+ * needs no database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccessTokenRevocationList implements SmartLifecycle {
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final JwtConfig jwtConfig;
+
+    private volatile Snapshot snapshot;
+    private volatile Instant lastSync = Instant.EPOCH;
+    private volatile boolean running;
+
+    public void init() {
+        rebuild();
+    }
+
+    @Override
+    public void start() {
+        init();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        return current.filter().mightContain(jti) && current.revoked().containsKey(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (jti == null || !expiresAt.isAfter(now)) {
+            return;
+        }
+        revokedAccessTokenRepository.save(new RevokedAccessToken(jti, expiresAt, now));
+        snapshot.add(jti, expiresAt);
+        log.info("Revoked access token {}", jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:30000}",
+            initialDelayString = "${jwt.revocation.refresh-ms:30000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        // overlap the previous window so revocations committed late are not missed
+        Instant since = lastSync.minusMillis(jwtConfig.getRevocation().getRefreshMs());
+        List<RevokedAccessToken> revoked =
+                revokedAccessTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now);
+        Snapshot current = snapshot;
+        revoked.forEach(token -> current.add(token.getJti(), token.getExpiresAt()));
+        lastSync = now;
+    }
+
+    /**
+     * Replaces the filter with one built from unexpired revocations only, since entries
+     * cannot be removed from a Bloom filter.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-ms:3600000}",
+            initialDelayString = "${jwt.revocation.rebuild-ms:3600000}")
+    @Transactional
+    public void rebuild() {
+        Instant now = Instant.now();
+        int purged = revokedAccessTokenRepository.deleteExpired(now);
+        List<RevokedAccessToken> revoked = revokedAccessTokenRepository.findByExpiresAtAfter(now);
+
+        Snapshot rebuilt = new Snapshot(
+                new BloomFilter(Math.max(jwtConfig.getRevocation().getExpectedRevocations(), revoked.size() * 2),
+                        jwtConfig.getRevocation().getFalsePositiveProbability()),
+                new ConcurrentHashMap<>());
+        revoked.forEach(token -> rebuilt.add(token.getJti(), token.getExpiresAt()));
+        snapshot = rebuilt;
+        lastSync = now;
+        log.info("Rebuilt access token revocation list with {} entries, purged {} expired", revoked.size(), purged);
+    }
+
+    private record Snapshot(BloomFilter filter, Map<String, Instant> revoked) {
+        void add(String jti, Instant expiresAt) {
+            filter.add(jti);
+            revoked.put(jti, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * User details loaded at login, carrying the identifiers that are copied into the JWT.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+    private final Long id;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(Long id, String username, String password, int tokenVersion,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public static AuthenticatedUser from(com.example.bankcards.entity.User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getTokenVersion(),
+                user.getRoles().stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
+                        .toList()
+        );
+    }
+}
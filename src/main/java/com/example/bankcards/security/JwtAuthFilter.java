@@ -1,16 +1,16 @@
 package com.example.bankcards.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,10 +19,12 @@ import java.io.IOException;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final AccessTokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, @NonNull
@@ -31,7 +33,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,15 +40,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = (Claims) request.getAttribute(JwtService.VERIFIED_CLAIMS_ATTRIBUTE);
+            if (claims == null) {
+                claims = jwtService.extractClaims(jwt);
+            }
+            JwtPrincipal principal = jwtService.extractPrincipal(claims);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (principal == null) {
+                log.debug("Rejecting token without user id claim for '{}'", claims.getSubject());
+            } else if (!tokenVersionCache.isCurrent(principal.id(), jwtService.extractTokenVersion(claims))) {
+                log.debug("Rejecting outdated token for user ID {}", principal.id());
+            } else if (revocationList.isRevoked(claims.getId())) {
+                log.debug("Rejecting revoked token {} of user ID {}", claims.getId(), principal.id());
+            } else {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, jwtService.extractAuthorities(claims));
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -0,0 +1,13 @@
+package com.example.bankcards.security;
+
+import java.security.Principal;
+
+/**
+ * Principal of a JWT-authenticated request, built from verified claims without a database lookup.
+ */
+public record JwtPrincipal(Long id, String username) implements Principal {
+    @Override
+    public String getName() {
+        return username;
+    }
+}
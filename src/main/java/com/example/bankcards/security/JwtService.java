@@ -1,24 +1,64 @@
 package com.example.bankcards.security;
 
 import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.profiling.JwtVerifyEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
+    static final String ROLES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+    static final String VERIFIED_CLAIMS_ATTRIBUTE = JwtService.class.getName() + ".verifiedClaims";
+
     private final JwtConfig jwtConfig;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Timer cachedVerificationTimer;
+    private final Timer fullVerificationTimer;
+
+    private JwtParser parser;
+
+    public JwtService(JwtConfig jwtConfig, VerifiedTokenCache verifiedTokenCache, MeterRegistry meterRegistry) {
+        this.jwtConfig = jwtConfig;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.cachedVerificationTimer = Timer.builder("bankcards.jwt.verification")
+                .tag("cache", "hit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fullVerificationTimer = Timer.builder("bankcards.jwt.verification")
+                .tag("cache", "miss")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-    public String generateToken(UserDetails userDetails) {
+    @PostConstruct
+    public void init() {
+        this.parser = Jwts.parser()
+                .verifyWith(jwtConfig.getSecretKey())
+                .build();
+    }
+
+    public String generateToken(AuthenticatedUser user) {
         return Jwts.builder()
-                .subject(userDetails.getUsername())
-                .claim("roles", userDetails.getAuthorities().stream()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
+                .claim(ROLES_CLAIM, user.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority)
                         .collect(Collectors.toList()))
                 .issuedAt(new Date())
@@ -27,17 +67,68 @@ public class JwtService {
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername());
+    /**
+     * Verifies the token and returns its claims. Tokens verified earlier are served from
+     * {@link VerifiedTokenCache} until they expire, skipping the signature check and parsing.
+     */
+    public Claims extractClaims(String token) {
+        JwtVerifyEvent event = new JwtVerifyEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims != null) {
+            cachedVerificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.finish(true, true);
+            return claims;
+        }
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (RuntimeException e) {
+            event.finish(false, false);
+            throw e;
+        }
+        verifiedTokenCache.put(token, claims);
+        fullVerificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        event.finish(false, true);
+        return claims;
+    }
+
+    /**
+     * Returns the claims of a token only if it was already verified and is still cached,
+     * without verifying it now.
+     */
+    public Claims peekVerifiedClaims(String token) {
+        return verifiedTokenCache.get(token);
     }
 
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .verifyWith(jwtConfig.getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return extractClaims(token).getSubject();
+    }
+
+    /**
+     * Returns the principal of a verified token, or {@code null} for tokens issued before
+     * the user id claim was introduced.
+     */
+    public JwtPrincipal extractPrincipal(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new JwtPrincipal(userId, claims.getSubject());
+    }
+
+    public int extractTokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
     }
 }
@@ -0,0 +1,110 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.PasswordHashingConfig;
+import com.example.bankcards.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a fixed pool sized to a CPU budget, so a burst of logins cannot
+ * occupy every core. When the queue is full new work is rejected with
+ * {@link PasswordHashingOverloadedException} instead of piling up behind it.
+ * The pool deliberately stays on platform threads when request handling runs on virtual threads:
+ * hashing is CPU-bound, and the bound is what protects the CPU.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(PasswordHashingConfig config, MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(
+                config.getThreads(), config.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = config.getRetryAfterSeconds();
+
+        Gauge.builder("auth.password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hashing")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hashing")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public boolean matches(Supplier<Boolean> task) {
+        return submit(matchesTimer, task);
+    }
+
+    /**
+     * Encodes on the pool like {@link #matches}, but falls back to the calling thread when the
+     * queue is full: encoding only happens for re-hashing after a password was already verified,
+     * and failing the login at that point would be worse than briefly exceeding the budget.
+     */
+    public String encode(Supplier<String> task) {
+        try {
+            return submit(encodeTimer, task);
+        } catch (PasswordHashingOverloadedException e) {
+            log.debug("Password hashing queue is full, encoding on the calling thread");
+            return encodeTimer.record(task);
+        }
+    }
+
+    private <T> T submit(Timer timer, Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new PasswordHashingOverloadedException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
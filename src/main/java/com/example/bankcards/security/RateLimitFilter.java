@@ -0,0 +1,188 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.RateLimitConfig;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token-bucket rate limiting ahead of {@link JwtAuthFilter}. Requests are grouped into route
+ * classes with their own limits and keyed by username when the bearer token has already been
+ * verified, otherwise by client IP.
+ * <p>
+ * Unverified tokens are never trusted for the key: a forged {@code sub} could otherwise drain
+ * another user's bucket. The verified claims found here are handed to {@link JwtAuthFilter}
+ * through a request attribute so the token digest is computed once per request.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final byte[] REJECTED_BODY =
+            "{\"message\":\"Too many requests, retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    enum RouteClass {AUTH, READ, WRITE}
+
+    // remaining-token header values, precomputed so the hot path does not format numbers
+    private static final String[] COUNTS = new String[TokenBucket.MAX_CAPACITY + 1];
+
+    static {
+        for (int i = 0; i < COUNTS.length; i++) {
+            COUNTS[i] = String.valueOf(i);
+        }
+    }
+
+    private final RateLimitConfig config;
+    private final JwtService jwtService;
+    private final Map<RouteClass, RateLimitConfig.Limit> limits = new EnumMap<>(RouteClass.class);
+    // separate maps per route class and key kind keep lookups free of key concatenation
+    private final Map<RouteClass, Map<String, TokenBucket>> ipBuckets = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Map<String, TokenBucket>> userBuckets = new EnumMap<>(RouteClass.class);
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final long startNanos = System.nanoTime();
+
+    public RateLimitFilter(RateLimitConfig config, JwtService jwtService) {
+        this.config = config;
+        this.jwtService = jwtService;
+        if (config.isEnabled()) {
+            limits.put(RouteClass.AUTH, config.getAuth());
+            limits.put(RouteClass.READ, config.getRead());
+            limits.put(RouteClass.WRITE, config.getWrite());
+        }
+        for (RouteClass routeClass : RouteClass.values()) {
+            ipBuckets.put(routeClass, new ConcurrentHashMap<>());
+            userBuckets.put(routeClass, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !config.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RouteClass routeClass = classify(request);
+        Map<String, TokenBucket> buckets;
+        String key;
+        String username = resolveVerifiedUsername(request);
+        if (username != null) {
+            buckets = userBuckets.get(routeClass);
+            key = username;
+        } else {
+            buckets = ipBuckets.get(routeClass);
+            key = request.getRemoteAddr();
+        }
+        long now = (System.nanoTime() - startNanos) / 1_000_000;
+
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(buckets, key, routeClass, now);
+        }
+        long result = bucket.tryAcquire(now);
+
+        response.setHeader(LIMIT_HEADER, COUNTS[bucket.getCapacity()]);
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, COUNTS[(int) result]);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Rate limit exceeded for '{}' on {}", key, request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(REMAINING_HEADER, COUNTS[0]);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((-result + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    private String resolveVerifiedUsername(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        Claims claims = jwtService.peekVerifiedClaims(authHeader.substring(7));
+        if (claims == null) {
+            return null;
+        }
+        request.setAttribute(JwtService.VERIFIED_CLAIMS_ATTRIBUTE, claims);
+        return claims.getSubject();
+    }
+
+    private static RouteClass classify(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/auth/")) {
+            return RouteClass.AUTH;
+        }
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? RouteClass.READ : RouteClass.WRITE;
+    }
+
+    private TokenBucket newBucket(Map<String, TokenBucket> buckets, String key, RouteClass routeClass, long now) {
+        if (bucketCount.get() >= config.getMaxBuckets()) {
+            evictFullBuckets(now);
+        }
+        RateLimitConfig.Limit limit = limits.get(routeClass);
+        if (bucketCount.get() >= config.getMaxBuckets()) {
+            // every tracked client is still throttled; share one bucket per route class instead of growing
+            key = "";
+            buckets = ipBuckets.get(routeClass);
+        }
+        return buckets.computeIfAbsent(key, k -> {
+            bucketCount.incrementAndGet();
+            return new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now);
+        });
+    }
+
+    private void evictFullBuckets(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = bucketCount.get();
+            for (RouteClass routeClass : RouteClass.values()) {
+                evictFullBuckets(ipBuckets.get(routeClass), now);
+                evictFullBuckets(userBuckets.get(routeClass), now);
+            }
+            log.debug("Evicted {} idle rate limit buckets", before - bucketCount.get());
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private void evictFullBuckets(Map<String, TokenBucket> buckets, long now) {
+        buckets.entrySet().removeIf(entry -> {
+            // the overflow bucket shares the IP map under the empty key and is never evicted
+            if (!entry.getKey().isEmpty() && entry.getValue().isFull(now)) {
+                bucketCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    int bucketCount() {
+        return bucketCount.get();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A map of at most {@code maximumSize} entries for the per-request caches of token authentication. Keys are
+ * spread over independently locked segments, and a full segment drops its least recently used entry, so a full
+ * map still caches the entries in use instead of turning every miss into a scan.
+ */
+public final class SegmentedLruMap<K, V> {
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public SegmentedLruMap(int maximumSize) {
+        int count = Math.max(1, Math.min(SEGMENTS, maximumSize));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(Math.max(1, maximumSize / count));
+        }
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void remove(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key, value);
+        }
+    }
+
+    /**
+     * Locks one segment at a time, so lookups in the other segments go on meanwhile.
+     */
+    public void removeIf(Predicate<? super V> filter) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(filter);
+            }
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    /**
+     * Entries in access order, the least recently used first.
+     */
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+        private final int maximumSize;
+
+        Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
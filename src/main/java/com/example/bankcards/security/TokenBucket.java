@@ -0,0 +1,74 @@
+package com.example.bankcards.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The whole state lives in one {@code long} updated with CAS:
+ * the upper 42 bits hold the time of the last refill in milliseconds, the lower 22 bits
+ * the available tokens in thousandths, so capacity is limited to {@link #MAX_CAPACITY}.
+ */
+public class TokenBucket {
+    public static final int MAX_CAPACITY = 4_000;
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1_000;
+
+    private final AtomicLong state;
+    private final long capacity;
+    private final long refillPerMs;
+
+    /**
+     * @param refillPerSecond tokens added per second; in thousandths of a token this is
+     *                        exactly the amount added per millisecond
+     */
+    public TokenBucket(int capacity, int refillPerSecond, long nowMs) {
+        if (capacity < 1 || capacity > MAX_CAPACITY || refillPerSecond < 1) {
+            throw new IllegalArgumentException("Capacity must be within 1.." + MAX_CAPACITY
+                    + " and refill rate positive");
+        }
+        this.capacity = capacity * ONE_TOKEN;
+        this.refillPerMs = refillPerSecond;
+        this.state = new AtomicLong(pack(nowMs, this.capacity));
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return remaining whole tokens (zero or more) when the token was taken, otherwise
+     * the negated number of milliseconds until the next token becomes available
+     */
+    public long tryAcquire(long nowMs) {
+        while (true) {
+            long current = state.get();
+            long last = current >>> TOKEN_BITS;
+            long time = Math.max(nowMs, last);
+            long tokens = Math.min(capacity, (current & TOKEN_MASK) + (time - last) * refillPerMs);
+
+            if (tokens < ONE_TOKEN) {
+                return -Math.max(1, (ONE_TOKEN - tokens + refillPerMs - 1) / refillPerMs);
+            }
+            if (state.compareAndSet(current, pack(time, tokens - ONE_TOKEN))) {
+                return (tokens - ONE_TOKEN) / ONE_TOKEN;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has been idle long enough to refill completely behaves exactly like a new
+     * one, so it can be dropped without changing any limiting decision.
+     */
+    public boolean isFull(long nowMs) {
+        long current = state.get();
+        long last = current >>> TOKEN_BITS;
+        return (current & TOKEN_MASK) + Math.max(0, nowMs - last) * refillPerMs >= capacity;
+    }
+
+    public int getCapacity() {
+        return (int) (capacity / ONE_TOKEN);
+    }
+
+    private static long pack(long timeMs, long tokens) {
+        return (timeMs << TOKEN_BITS) | tokens;
+    }
+}
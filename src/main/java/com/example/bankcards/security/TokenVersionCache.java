@@ -0,0 +1,102 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.cache.CacheInvalidationBus;
+import com.example.bankcards.cache.CacheInvalidationEvent;
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.shard.ShardKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Caches each user's token version so that JWT authentication needs no per-request query.
+ * Bumping {@code users.token_version} invalidates every token issued before the change;
+ * other nodes evict the entry when the change reaches them through {@link CacheInvalidationBus},
+ * or pick up the new value once their cached entry expires. At most {@code token-version-cache-size}
+ * users are cached, the least recently authenticated dropped first.
+ */
+@Component
+@Slf4j
+public class TokenVersionCache {
+    private final UserRepository userRepository;
+    private final JwtConfig jwtConfig;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final SegmentedLruMap<Long, CachedVersion> versions;
+
+    public TokenVersionCache(UserRepository userRepository, JwtConfig jwtConfig,
+                             CacheInvalidationBus invalidationBus) {
+        this.userRepository = userRepository;
+        this.jwtConfig = jwtConfig;
+        this.invalidationBus = invalidationBus;
+        this.versions = new SegmentedLruMap<>(jwtConfig.getTokenVersionCacheSize());
+    }
+
+    public boolean isCurrent(@ShardKey Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached == null || cached.expiresAt() < now) {
+            Optional<Integer> loaded = userRepository.findTokenVersionById(userId);
+            if (loaded.isEmpty()) {
+                versions.remove(userId);
+                return false;
+            }
+            cached = new CachedVersion(loaded.get(), now + jwtConfig.getTokenVersionTtlMs());
+            versions.put(userId, cached);
+        }
+        return cached.version() == tokenVersion;
+    }
+
+    /**
+     * Drops expired versions, which would otherwise only make room once they are the least recently used.
+     */
+    @Scheduled(fixedDelayString = "${jwt.cache-sweep-ms:60000}", initialDelayString = "${jwt.cache-sweep-ms:60000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        versions.removeIf(entry -> entry.expiresAt() < now);
+    }
+
+    /**
+     * Drops the cached version once the surrounding transaction commits, so a concurrent
+     * request cannot reload and cache the pre-commit value.
+     */
+    public void evictAfterCommit(Long userId) {
+        invalidationBus.publish(CacheInvalidationEvent.Type.USER, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    public void evict(Long userId) {
+        log.debug("Evicting cached token version of user ID {}", userId);
+        versions.remove(userId);
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.type() != CacheInvalidationEvent.Type.USER) {
+            return;
+        }
+        if (event.isAll()) {
+            versions.clear();
+        } else {
+            event.ids().forEach(this::evict);
+        }
+    }
+
+    private record CachedVersion(int version, long expiresAt) {
+    }
+}
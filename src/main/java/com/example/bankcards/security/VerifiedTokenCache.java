@@ -0,0 +1,76 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.JwtConfig;
+import io.jsonwebtoken.Claims;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Remembers the claims of tokens whose signature has already been verified, keyed by a
+ * SHA-256 digest of the token so raw tokens are never kept in memory. Entries expire at the
+ * token's own {@code exp} and are swept periodically; once the cache is full, caching a new
+ * token drops the least recently used one.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final SegmentedLruMap<String, Entry> entries;
+
+    public VerifiedTokenCache(JwtConfig jwtConfig) {
+        this.entries = new SegmentedLruMap<>(jwtConfig.getVerifiedTokenCacheSize());
+    }
+
+    public Claims get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = claims.getExpiration().getTime();
+        if (expiresAt <= now) {
+            return;
+        }
+        entries.put(digest(token), new Entry(claims, expiresAt));
+    }
+
+    /**
+     * Drops expired tokens, which would otherwise only make room once they are the least recently used.
+     */
+    @Scheduled(fixedDelayString = "${jwt.cache-sweep-ms:60000}", initialDelayString = "${jwt.cache-sweep-ms:60000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        entries.removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
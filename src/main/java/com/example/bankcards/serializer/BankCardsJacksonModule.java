@@ -0,0 +1,36 @@
+package com.example.bankcards.serializer;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.UserDto;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the hand-written serializers for the DTOs returned by listing endpoints.
+ * Picked up by Spring Boot's Jackson auto-configuration as a {@code Module} bean.
+ */
+@Component
+public class BankCardsJacksonModule extends SimpleModule {
+
+    public BankCardsJacksonModule() {
+        super(BankCardsJacksonModule.class.getSimpleName());
+        CardDtoSerializer cardSerializer = new CardDtoSerializer();
+        addSerializer(CardDto.class, cardSerializer);
+        addSerializer(UserDto.class, new UserDtoSerializer(cardSerializer));
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                if (beanDesc.getBeanClass() == PageImpl.class) {
+                    return new PageSerializer(serializer);
+                }
+                return serializer;
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.serializer;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes {@link CardDto} in declaration order, limited to {@link CardDto#getIncludedFields()} when set.
+ */
+public class CardDtoSerializer extends StdSerializer<CardDto> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString HOLDER_NAME = new SerializedString("holderName");
+    private static final SerializedString EXPIRATION_DATE = new SerializedString("expirationDate");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString BALANCE = new SerializedString("balance");
+
+    private static final Map<CardStatus, SerializedString> STATUS_VALUES = new EnumMap<>(CardStatus.class);
+
+    static {
+        for (CardStatus status : CardStatus.values()) {
+            STATUS_VALUES.put(status, new SerializedString(status.name()));
+        }
+    }
+
+    public CardDtoSerializer() {
+        super(CardDto.class);
+    }
+
+    @Override
+    public void serialize(CardDto card, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<CardField> fields = card.getIncludedFields() == null ? CardField.ALL : card.getIncludedFields();
+        gen.writeStartObject(card);
+        if (fields.contains(CardField.ID)) {
+            gen.writeFieldName(ID);
+            JsonWriters.writeNumber(gen, card.getId());
+        }
+        if (fields.contains(CardField.NUMBER)) {
+            gen.writeFieldName(NUMBER);
+            JsonWriters.writeString(gen, card.getNumber());
+        }
+        if (fields.contains(CardField.HOLDER_NAME)) {
+            gen.writeFieldName(HOLDER_NAME);
+            JsonWriters.writeString(gen, card.getHolderName());
+        }
+        if (fields.contains(CardField.EXPIRATION_DATE)) {
+            gen.writeFieldName(EXPIRATION_DATE);
+            JsonWriters.writeDate(gen, card.getExpirationDate(), provider);
+        }
+        if (fields.contains(CardField.STATUS)) {
+            gen.writeFieldName(STATUS);
+            if (card.getStatus() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(STATUS_VALUES.get(card.getStatus()));
+            }
+        }
+        if (fields.contains(CardField.BALANCE)) {
+            gen.writeFieldName(BALANCE);
+            JsonWriters.writeNumber(gen, card.getBalance());
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bankcards.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Null-aware primitives shared by the hand-written serializers. Output matches what
+ * Jackson's bean serializers produce with the application's default configuration.
+ */
+final class JsonWriters {
+    private static final int ISO_DATE_LENGTH = 10;
+
+    private JsonWriters() {
+    }
+
+    static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeNumber(JsonGenerator gen, BigDecimal value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeString(JsonGenerator gen, String value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    /**
+     * Writes an ISO-8601 date straight from its fields. Falls back to the registered
+     * serializer when dates are configured as timestamps or the year needs a sign.
+     */
+    static void writeDate(JsonGenerator gen, LocalDate date, SerializerProvider provider) throws IOException {
+        if (date == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) || year < 0 || year > 9999) {
+            provider.defaultSerializeValue(date, gen);
+            return;
+        }
+        char[] buffer = new char[ISO_DATE_LENGTH];
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, date.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, date.getDayOfMonth(), 2);
+        gen.writeString(buffer, 0, ISO_DATE_LENGTH);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
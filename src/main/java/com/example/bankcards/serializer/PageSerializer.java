@@ -0,0 +1,146 @@
+package com.example.bankcards.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the {@link PageImpl} envelope without bean introspection. Pages without paging
+ * information are passed to the bean serializer Jackson would otherwise use.
+ */
+public class PageSerializer extends StdSerializer<PageImpl<?>> implements ContextualSerializer, ResolvableSerializer {
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString PAGEABLE = new SerializedString("pageable");
+    private static final SerializedString PAGE_NUMBER = new SerializedString("pageNumber");
+    private static final SerializedString PAGE_SIZE = new SerializedString("pageSize");
+    private static final SerializedString SORT = new SerializedString("sort");
+    private static final SerializedString OFFSET = new SerializedString("offset");
+    private static final SerializedString PAGED = new SerializedString("paged");
+    private static final SerializedString UNPAGED = new SerializedString("unpaged");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializedString LAST = new SerializedString("last");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString NUMBER_OF_ELEMENTS = new SerializedString("numberOfElements");
+    private static final SerializedString FIRST = new SerializedString("first");
+    private static final SerializedString EMPTY = new SerializedString("empty");
+    private static final SerializedString SORTED = new SerializedString("sorted");
+    private static final SerializedString UNSORTED = new SerializedString("unsorted");
+
+    private final JsonSerializer<Object> beanSerializer;
+
+    @SuppressWarnings("unchecked")
+    public PageSerializer(JsonSerializer<?> beanSerializer) {
+        super(PageImpl.class, false);
+        this.beanSerializer = (JsonSerializer<Object>) beanSerializer;
+    }
+
+    @Override
+    public void serialize(PageImpl<?> page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Pageable pageable = page.getPageable();
+        if (pageable.isUnpaged()) {
+            beanSerializer.serialize(page, gen, provider);
+            return;
+        }
+        gen.writeStartObject(page);
+        gen.writeFieldName(CONTENT);
+        writeContent(page.getContent(), gen, provider);
+
+        gen.writeFieldName(PAGEABLE);
+        gen.writeStartObject(pageable);
+        gen.writeFieldName(PAGE_NUMBER);
+        gen.writeNumber(pageable.getPageNumber());
+        gen.writeFieldName(PAGE_SIZE);
+        gen.writeNumber(pageable.getPageSize());
+        gen.writeFieldName(SORT);
+        writeSort(pageable.getSort(), gen);
+        gen.writeFieldName(OFFSET);
+        gen.writeNumber(pageable.getOffset());
+        gen.writeFieldName(PAGED);
+        gen.writeBoolean(true);
+        gen.writeFieldName(UNPAGED);
+        gen.writeBoolean(false);
+        gen.writeEndObject();
+
+        gen.writeFieldName(TOTAL_PAGES);
+        gen.writeNumber(page.getTotalPages());
+        gen.writeFieldName(TOTAL_ELEMENTS);
+        gen.writeNumber(page.getTotalElements());
+        gen.writeFieldName(LAST);
+        gen.writeBoolean(page.isLast());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.getSize());
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(page.getNumber());
+        gen.writeFieldName(SORT);
+        writeSort(page.getSort(), gen);
+        gen.writeFieldName(NUMBER_OF_ELEMENTS);
+        gen.writeNumber(page.getNumberOfElements());
+        gen.writeFieldName(FIRST);
+        gen.writeBoolean(page.isFirst());
+        gen.writeFieldName(EMPTY);
+        gen.writeBoolean(page.isEmpty());
+        gen.writeEndObject();
+    }
+
+    private void writeContent(List<?> content, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray(content, content.size());
+        Class<?> lastType = null;
+        JsonSerializer<Object> lastSerializer = null;
+        for (Object element : content) {
+            if (element == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+            if (element.getClass() != lastType) {
+                lastType = element.getClass();
+                lastSerializer = provider.findValueSerializer(lastType);
+            }
+            lastSerializer.serialize(element, gen, provider);
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeSort(Sort sort, JsonGenerator gen) throws IOException {
+        gen.writeStartObject(sort);
+        gen.writeFieldName(EMPTY);
+        gen.writeBoolean(sort.isEmpty());
+        gen.writeFieldName(SORTED);
+        gen.writeBoolean(sort.isSorted());
+        gen.writeFieldName(UNSORTED);
+        gen.writeBoolean(sort.isUnsorted());
+        gen.writeEndObject();
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (beanSerializer instanceof ContextualSerializer contextual) {
+            JsonSerializer<?> contextualized = contextual.createContextual(provider, property);
+            if (contextualized != beanSerializer) {
+                return new PageSerializer(contextualized);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (beanSerializer instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+}
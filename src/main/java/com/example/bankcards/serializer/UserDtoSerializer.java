@@ -0,0 +1,61 @@
+package com.example.bankcards.serializer;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.UserDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class UserDtoSerializer extends StdSerializer<UserDto> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString PASSWORD = new SerializedString("password");
+    private static final SerializedString ROLES = new SerializedString("roles");
+    private static final SerializedString CARDS = new SerializedString("cards");
+
+    private final CardDtoSerializer cardSerializer;
+
+    public UserDtoSerializer(CardDtoSerializer cardSerializer) {
+        super(UserDto.class);
+        this.cardSerializer = cardSerializer;
+    }
+
+    @Override
+    public void serialize(UserDto user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(user);
+        gen.writeFieldName(ID);
+        JsonWriters.writeNumber(gen, user.getId());
+        gen.writeFieldName(USERNAME);
+        JsonWriters.writeString(gen, user.getUsername());
+        gen.writeFieldName(PASSWORD);
+        JsonWriters.writeString(gen, user.getPassword());
+        gen.writeFieldName(ROLES);
+        if (user.getRoles() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray(user.getRoles(), user.getRoles().size());
+            for (String role : user.getRoles()) {
+                JsonWriters.writeString(gen, role);
+            }
+            gen.writeEndArray();
+        }
+        gen.writeFieldName(CARDS);
+        if (user.getCards() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray(user.getCards(), user.getCards().size());
+            for (CardDto card : user.getCards()) {
+                if (card == null) {
+                    gen.writeNull();
+                } else {
+                    cardSerializer.serialize(card, gen, provider);
+                }
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.dto.TokenPair;
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InvalidRefreshTokenException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AccessTokenRevocationList;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.JwtService;
+import com.example.bankcards.shard.ShardKey;
+import com.example.bankcards.shard.ShardRouter;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final JwtConfig jwtConfig;
+    private final AccessTokenRevocationList revocationList;
+    private final ShardRouter shardRouter;
+
+    @Transactional
+    public TokenPair issueTokens(@ShardKey(property = "id") AuthenticatedUser user) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawRefreshToken = shardRouter.tagToken(user.getId(),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(userRepository.getReferenceById(user.getId()));
+        refreshToken.setTokenHash(hash(rawRefreshToken));
+        refreshToken.setTokenVersion(user.getTokenVersion());
+        refreshToken.setExpiresAt(Instant.now().plusMillis(jwtConfig.getRefreshExpirationMs()));
+        refreshTokenRepository.save(refreshToken);
+
+        log.debug("Issued tokens for user '{}'", user.getUsername());
+        return new TokenPair(jwtService.generateToken(user), rawRefreshToken);
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair. Each refresh token works once; presenting
+     * an already used one means it leaked, so every refresh token of that user is revoked.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenPair refresh(@ShardKey(ShardKey.Kind.TOKEN) String rawRefreshToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+                .orElseThrow(() -> {
+                    log.warn("Unknown refresh token presented");
+                    return new InvalidRefreshTokenException();
+                });
+        User user = refreshToken.getUser();
+
+        if (refreshToken.isRevoked() || refreshTokenRepository.revokeIfActive(refreshToken.getId()) == 0) {
+            log.warn("Reuse of refresh token detected for user '{}', revoking all refresh tokens", user.getUsername());
+            refreshTokenRepository.revokeAllByUserId(user.getId());
+            throw new InvalidRefreshTokenException();
+        }
+        if (refreshToken.getExpiresAt().isBefore(Instant.now())) {
+            log.warn("Expired refresh token presented for user '{}'", user.getUsername());
+            throw new InvalidRefreshTokenException();
+        }
+        if (refreshToken.getTokenVersion() != user.getTokenVersion()) {
+            log.warn("Outdated refresh token presented for user '{}'", user.getUsername());
+            throw new InvalidRefreshTokenException();
+        }
+
+        log.info("Refreshing tokens for user '{}'", user.getUsername());
+        return issueTokens(AuthenticatedUser.from(user));
+    }
+
+    /**
+     * Revocations are global and kept on shard 0, the refresh token on the shard of its user, so the two
+     * updates commit separately.
+     */
+    public void logout(Claims accessTokenClaims, String rawRefreshToken) {
+        revocationList.revoke(accessTokenClaims.getId(), accessTokenClaims.getExpiration().toInstant());
+        if (rawRefreshToken != null) {
+            shardRouter.onShard(shardRouter.shardOfToken(rawRefreshToken),
+                    () -> refreshTokenRepository.revokeByTokenHash(hash(rawRefreshToken)));
+        }
+        log.info("User '{}' logged out", accessTokenClaims.getSubject());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-ms:3600000}")
+    public void purgeExpiredRefreshTokens() {
+        shardRouter.forEachShard(() -> {
+            int purged = refreshTokenRepository.deleteExpired(Instant.now());
+            log.info("Purged {} expired refresh tokens", purged);
+        });
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
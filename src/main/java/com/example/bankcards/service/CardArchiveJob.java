@@ -0,0 +1,95 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardArchiveConfig;
+import com.example.bankcards.shard.ShardRouter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves cards that have been blocked or expired for longer than {@code archive-after} from {@code cards}
+ * to {@code cards_archive}, which has the same columns plus {@code archived_at}. Each chunk of cards is
+ * locked, copied with one {@code INSERT ... SELECT} and removed with one {@code DELETE} in its own
+ * transaction, so the hot table and its indexes only hold cards that can still change.
+ */
+@Slf4j
+@Component
+public class CardArchiveJob {
+    static final String RUN_TIMER_NAME = "bankcards.card-archive.run";
+    static final String ARCHIVED_SUMMARY_NAME = "bankcards.card-archive.archived";
+
+    private static final String FIND_CARDS = "select id from cards where status in ('BLOCKED', 'EXPIRED') "
+            + "and status_changed_at < :cutoff and deleted_at is null order by id limit :limit for update";
+    private static final String COPY_CARDS = "insert into cards_archive (id, card_number, card_holder_id, "
+            + "expiration_date, status, balance, version, deleted_at, status_changed_at, archived_at) "
+            + "select id, card_number, card_holder_id, expiration_date, status, balance, version, deleted_at, "
+            + "status_changed_at, :now from cards where id in (:ids)";
+    private static final String DELETE_CARDS = "delete from cards where id in (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CardArchiveConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+
+    private final JobRun jobRun;
+
+    public CardArchiveJob(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          CardArchiveConfig config, MeterRegistry meterRegistry, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.shardRouter = shardRouter;
+        this.jobRun = new JobRun("Card archive", RUN_TIMER_NAME, "Duration of card archive runs", meterRegistry);
+    }
+
+    @Scheduled(cron = "${card-archive.cron:0 0 4 * * *}", zone = "${card-archive.zone:UTC}")
+    public void run() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        shardRouter.forEachShard(() -> archive(now));
+    }
+
+    public int archive(Instant now) {
+        AtomicInteger archived = new AtomicInteger();
+        return jobRun.run(() -> {
+            Map<String, Object> selection = Map.of(
+                    "cutoff", Timestamp.from(now.minus(config.getArchiveAfter())),
+                    "limit", config.getChunkSize());
+            Timestamp archivedAt = Timestamp.from(now);
+            List<Long> chunk;
+            do {
+                chunk = transactionTemplate.execute(status -> {
+                    List<Long> ids = jdbcTemplate.queryForList(FIND_CARDS, selection, Long.class);
+                    if (!ids.isEmpty()) {
+                        jdbcTemplate.update(COPY_CARDS, Map.of("ids", ids, "now", archivedAt));
+                        jdbcTemplate.update(DELETE_CARDS, Map.of("ids", ids));
+                    }
+                    return ids;
+                });
+                archived.addAndGet(chunk.size());
+            } while (chunk.size() >= config.getChunkSize());
+            return archived.get();
+        }, (outcome, millis) -> {
+            DistributionSummary.builder(ARCHIVED_SUMMARY_NAME)
+                    .description("Cards archived per card archive run")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(archived.get());
+            log.info("Card archive run finished with {}: {} cards archived, {} ms", outcome, archived.get(), millis);
+        });
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardBulkConfig;
+import com.example.bankcards.dto.BulkDeleteResult;
+import com.example.bankcards.dto.CardFilter;
+import com.example.bankcards.dto.CardSelectionDto;
+import com.example.bankcards.dto.CardStatusChangeDto;
+import com.example.bankcards.dto.CardStatusChangeResult;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based changes and soft deletes of many cards at once. Each chunk of cards is changed by a single
+ * {@code UPDATE ... RETURNING id} committed in its own transaction, so row locks are short and a
+ * failed request can simply be repeated. The version is bumped like an entity update would, which
+ * keeps ETags and optimistic checks of concurrent single-card requests correct.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardBulkService {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CardBulkConfig config;
+    private final ShardRouter shardRouter;
+
+    public CardStatusChangeResult changeStatuses(CardStatusChangeDto request) {
+        CardStatus status = request.getStatus();
+        Update update = new Update("status = ?, status_changed_at = current_timestamp, version = version + 1",
+                List.of(status.name()),
+                "status <> ? and deleted_at is null", List.of(status.name()));
+        List<Long> changed = apply(update, request);
+        log.info("Bulk status change to {} changed {} cards", status, changed.size());
+        return new CardStatusChangeResult(status, changed.size(), changed);
+    }
+
+    /**
+     * Soft-deletes the selected cards; {@code PurgeJob} removes the rows later.
+     */
+    public BulkDeleteResult softDelete(CardSelectionDto request) {
+        Update update = new Update("deleted_at = ?, version = version + 1", List.of(Timestamp.from(Instant.now())),
+                "deleted_at is null", List.of());
+        List<Long> deleted = apply(update, request);
+        log.info("Bulk delete soft-deleted {} cards", deleted.size());
+        return new BulkDeleteResult(deleted.size(), deleted);
+    }
+
+    /**
+     * Each shard updates its own cards in parallel.
+     */
+    private List<Long> apply(Update update, CardSelectionDto request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        return shardRouter.onEachShard(() -> hasIds
+                        ? updateByIds(update, shardRouter.onCurrentShard(request.getIds()))
+                        : updateByFilter(update, request.getFilter()))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Ids are processed in ascending order so concurrent bulk changes lock rows in the same order.
+     */
+    private List<Long> updateByIds(Update update, Collection<Long> selected) {
+        String sql = "update cards set " + update.set() + " where id = any(?) and " + update.pending()
+                + " returning id";
+        List<Long> ids = selected.stream().sorted().toList();
+        List<Long> changed = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += config.getChunkSize()) {
+            Long[] chunk = ids.subList(from, Math.min(from + config.getChunkSize(), ids.size())).toArray(Long[]::new);
+            changed.addAll(update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                int index = bind(statement, 1, update.setValues());
+                statement.setArray(index++, connection.createArrayOf("bigint", chunk));
+                bind(statement, index, update.pendingValues());
+                return statement;
+            }));
+        }
+        return changed;
+    }
+
+    /**
+     * Updated cards no longer match the pending condition, so each round picks the next chunk until one
+     * comes back short.
+     */
+    private List<Long> updateByFilter(Update update, CardFilter filter) {
+        StringBuilder select = new StringBuilder("select id from cards where " + update.pending());
+        List<Object> parameters = new ArrayList<>(update.setValues());
+        parameters.addAll(update.pendingValues());
+        parameters.addAll(update.pendingValues());
+        if (filter.getHolderId() != null) {
+            select.append(" and card_holder_id = ?");
+            parameters.add(filter.getHolderId());
+        }
+        if (filter.getStatus() != null) {
+            select.append(" and status = ?");
+            parameters.add(filter.getStatus().name());
+        }
+        if (filter.getExpiresBefore() != null) {
+            select.append(" and expiration_date < ?");
+            parameters.add(Date.valueOf(filter.getExpiresBefore()));
+        }
+        select.append(" order by id limit ?");
+        parameters.add(config.getChunkSize());
+        String sql = "update cards set " + update.set() + " where " + update.pending() + " and id in ("
+                + select + ") returning id";
+
+        List<Long> changed = new ArrayList<>();
+        List<Long> chunk;
+        do {
+            chunk = update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                bind(statement, 1, parameters);
+                return statement;
+            });
+            changed.addAll(chunk);
+        } while (chunk.size() >= config.getChunkSize());
+        return changed;
+    }
+
+    private static int bind(PreparedStatement statement, int index, List<Object> values) throws SQLException {
+        for (Object value : values) {
+            statement.setObject(index++, value);
+        }
+        return index;
+    }
+
+    private List<Long> update(PreparedStatementCreator statement) {
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.query(statement, (resultSet, row) -> resultSet.getLong(1)));
+    }
+
+    /**
+     * The {@code SET} clause applied to each card and the condition a card must still match to be
+     * updated, with the values of their placeholders.
+     */
+    private record Update(String set, List<Object> setValues, String pending, List<Object> pendingValues) {
+    }
+}
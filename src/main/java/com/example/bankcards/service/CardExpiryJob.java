@@ -0,0 +1,109 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardExpiryConfig;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardIdRange;
+import com.example.bankcards.security.TokenBucket;
+import com.example.bankcards.shard.ShardRouter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves active cards past their expiration date to {@code EXPIRED}. The id space is split into
+ * contiguous partitions processed in parallel; each partition walks its range in chunks of
+ * {@code chunk-size} ids with one set-based update committed per chunk, so row locks are held for
+ * a single short statement and dead tuples are spread out for autovacuum. A shared token bucket
+ * caps the chunk rate to keep the job from competing with transfers for connections and I/O.
+ */
+@Slf4j
+@Component
+public class CardExpiryJob {
+    static final String RUN_TIMER_NAME = "bankcards.card-expiry.run";
+    static final String EXPIRED_SUMMARY_NAME = "bankcards.card-expiry.expired";
+
+    private final CardRepository cardRepository;
+    private final CardExpiryConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+
+    private final JobRun jobRun;
+
+    public CardExpiryJob(CardRepository cardRepository, CardExpiryConfig config, MeterRegistry meterRegistry,
+                         ShardRouter shardRouter) {
+        this.cardRepository = cardRepository;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.shardRouter = shardRouter;
+        this.jobRun = new JobRun("Card expiry", RUN_TIMER_NAME, "Duration of card expiry runs", meterRegistry);
+    }
+
+    @Scheduled(cron = "${card-expiry.cron:0 30 2 * * *}", zone = "${card-expiry.zone:UTC}")
+    public void run() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(config.getZone());
+        shardRouter.forEachShard(() -> expire(today));
+    }
+
+    public int expire(LocalDate today) {
+        AtomicInteger expired = new AtomicInteger();
+        AtomicInteger chunks = new AtomicInteger();
+        return jobRun.run(() -> {
+            CardIdRange range = cardRepository.findIdRange();
+            if (range.maxId() > 0) {
+                expireParallel(range, today, expired, chunks);
+            }
+            return expired.get();
+        }, (outcome, millis) -> {
+            DistributionSummary.builder(EXPIRED_SUMMARY_NAME)
+                    .description("Cards expired per card expiry run")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(expired.get());
+            log.info("Card expiry run for {} finished with {}: {} cards expired in {} chunks, {} ms",
+                    today, outcome, expired.get(), chunks.get(), millis);
+        });
+    }
+
+    private void expireParallel(CardIdRange range, LocalDate today, AtomicInteger expired, AtomicInteger chunks) {
+        long chunkSize = config.getChunkSize();
+        int partitions = Math.max(1, config.getPartitions());
+        long endId = range.maxId() + 1;
+        long chunkCount = (endId - range.minId() + chunkSize - 1) / chunkSize;
+        long partitionSize = (chunkCount + partitions - 1) / partitions * chunkSize;
+        TokenBucket rateLimit = new TokenBucket(1, config.getChunksPerSecond(), System.currentTimeMillis());
+
+        List<Callable<Void>> ranges = new ArrayList<>();
+        for (long from = range.minId(); from < endId; from += partitionSize) {
+            long partitionStart = from;
+            long partitionEnd = Math.min(from + partitionSize, endId);
+            ranges.add(() -> {
+                for (long chunkStart = partitionStart; chunkStart < partitionEnd; chunkStart += chunkSize) {
+                    awaitPermit(rateLimit);
+                    long chunkEnd = Math.min(chunkStart + chunkSize, partitionEnd);
+                    expired.addAndGet(cardRepository.expireRange(chunkStart, chunkEnd, today));
+                    chunks.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        jobRun.runInParallel("card-expiry", partitions, ranges);
+    }
+
+    private static void awaitPermit(TokenBucket rateLimit) throws InterruptedException {
+        long result;
+        while ((result = rateLimit.tryAcquire(System.currentTimeMillis())) < 0) {
+            Thread.sleep(-result);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.cache.CacheInvalidationBus;
+import com.example.bankcards.cache.CacheInvalidationEvent;
+import com.example.bankcards.config.CardPageCacheConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches mapped pages of a user's own cards, so repeated listings skip the page and count queries and
+ * the decryption of every card number. Each page is stored with the card version summary it was
+ * loaded under and is only served while the user's current summary (which the ETag check computes
+ * anyway) still matches, so bulk updates, nightly jobs and writes on other nodes can never serve a
+ * stale page. {@code CardService} mutations and renames of the user additionally drop the user's pages
+ * once they commit, on this node and, through {@link CacheInvalidationBus}, on the others.
+ * <p>
+ * Memory is bounded by an estimated weight. Users are spread over independently locked segments, each
+ * evicting whole users in least-recently-used order, since the pages of one user are read together.
+ */
+@Component
+@Slf4j
+public class CardPageCache {
+    static final String REQUESTS_COUNTER_NAME = "bankcards.card-page-cache.requests";
+    static final String EVICTIONS_COUNTER_NAME = "bankcards.card-page-cache.evictions";
+
+    private static final int PAGE_WEIGHT = 256;
+    private static final int CARD_WEIGHT = 320;
+
+    private final boolean enabled;
+    private final CacheInvalidationBus invalidationBus;
+    private final Segment[] segments;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stale;
+    private final Counter evictedBySize;
+    private final Counter evictedByWrite;
+
+    public CardPageCache(CardPageCacheConfig config, CacheInvalidationBus invalidationBus,
+                         MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        this.invalidationBus = invalidationBus;
+        int count = Math.max(1, config.getSegments());
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(config.getMaximumWeight() / count);
+        }
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.stale = requests(meterRegistry, "stale");
+        this.evictedBySize = evictions(meterRegistry, "size");
+        this.evictedByWrite = evictions(meterRegistry, "write");
+        Gauge.builder("bankcards.card-page-cache.weight", this, CardPageCache::weight)
+                .description("Estimated bytes held by cached card pages")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("bankcards.card-page-cache.hit-ratio", this, CardPageCache::hitRatio)
+                .description("Share of card page lookups served from the cache since startup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached page for {@code key} if it was loaded under {@code summary}, otherwise loads,
+     * caches and returns it.
+     */
+    public Page<CardDto> get(Key key, CardVersionSummary summary, Supplier<Page<CardDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Segment segment = segmentFor(key.userId());
+        Entry cached = segment.get(key);
+        if (cached != null && cached.summary().equals(summary)) {
+            hits.increment();
+            return cached.page();
+        }
+        (cached == null ? misses : stale).increment();
+        Page<CardDto> page = loader.get();
+        int evicted = segment.put(key, new Entry(summary, page, weigh(page)));
+        if (evicted > 0) {
+            evictedBySize.increment(evicted);
+        }
+        return page;
+    }
+
+    /**
+     * Drops the user's pages once the surrounding transaction commits. This alone does not stop a request
+     * that loaded a page before the commit from putting it back afterwards; such a page is replaced on the
+     * next read because its summary no longer matches, since card writes change the card versions and a
+     * rename changes the holder version.
+     */
+    public void evictAfterCommit(Long userId) {
+        invalidationBus.publish(CacheInvalidationEvent.Type.USER_CARDS, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    public void evict(Long userId) {
+        int evicted = segmentFor(userId).remove(userId);
+        if (evicted > 0) {
+            log.debug("Evicted {} cached card pages of user ID {}", evicted, userId);
+            evictedByWrite.increment(evicted);
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (event.type() != CacheInvalidationEvent.Type.USER_CARDS) {
+            return;
+        }
+        if (event.isAll()) {
+            for (Segment segment : segments) {
+                segment.clear();
+            }
+        } else {
+            event.ids().forEach(this::evict);
+        }
+    }
+
+    long weight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + misses.count() + stale.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+
+    private Segment segmentFor(Long userId) {
+        return segments[(int) Math.floorMod(userId, (long) segments.length)];
+    }
+
+    private static int weigh(Page<CardDto> page) {
+        return PAGE_WEIGHT + CARD_WEIGHT * page.getNumberOfElements();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(REQUESTS_COUNTER_NAME)
+                .description("Card page cache lookups; stale means a cached page was replaced after a write")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder(EVICTIONS_COUNTER_NAME)
+                .description("Card pages dropped from the cache")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    public record Key(Long userId, CardStatus status, int page, int size, Set<CardField> fields,
+                      boolean includeArchived) {
+    }
+
+    private record Entry(CardVersionSummary summary, Page<CardDto> page, int weight) {
+    }
+
+    /**
+     * Users in access order, each with their cached pages.
+     */
+    private static final class Segment {
+        private final long maximumWeight;
+        private final LinkedHashMap<Long, Map<Key, Entry>> users = new LinkedHashMap<>(16, 0.75f, true);
+        private final AtomicLong weight = new AtomicLong();
+
+        Segment(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        synchronized Entry get(Key key) {
+            Map<Key, Entry> pages = users.get(key.userId());
+            return pages != null ? pages.get(key) : null;
+        }
+
+        /**
+         * @return the number of pages evicted to make room
+         */
+        synchronized int put(Key key, Entry entry) {
+            if (entry.weight() > maximumWeight) {
+                return 0;
+            }
+            Entry replaced = users.computeIfAbsent(key.userId(), id -> new HashMap<>()).put(key, entry);
+            weight.addAndGet(entry.weight() - (replaced != null ? replaced.weight() : 0));
+            int evicted = 0;
+            Iterator<Map.Entry<Long, Map<Key, Entry>>> eldest = users.entrySet().iterator();
+            while (weight.get() > maximumWeight && eldest.hasNext()) {
+                Map.Entry<Long, Map<Key, Entry>> user = eldest.next();
+                if (user.getKey().equals(key.userId())) {
+                    continue;
+                }
+                evicted += drop(user.getValue());
+                eldest.remove();
+            }
+            if (weight.get() > maximumWeight) {
+                // only this user is left, with more page and size combinations than fit
+                Map<Key, Entry> pages = users.get(key.userId());
+                pages.remove(key);
+                evicted += drop(pages);
+                pages.clear();
+                pages.put(key, entry);
+            }
+            return evicted;
+        }
+
+        synchronized void clear() {
+            users.clear();
+            weight.set(0);
+        }
+
+        synchronized int remove(Long userId) {
+            Map<Key, Entry> pages = users.remove(userId);
+            return pages != null ? drop(pages) : 0;
+        }
+
+        long weight() {
+            return weight.get();
+        }
+
+        private int drop(Map<Key, Entry> pages) {
+            for (Entry entry : pages.values()) {
+                weight.addAndGet(-entry.weight());
+            }
+            return pages.size();
+        }
+    }
+}
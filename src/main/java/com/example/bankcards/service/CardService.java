@@ -1,29 +1,41 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.*;
+import com.example.bankcards.logging.LogMarkers;
 import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.profiling.TransferEvent;
+import com.example.bankcards.repository.ArchivedCardRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardSummary;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import com.example.bankcards.shard.ShardKey;
+import com.example.bankcards.shard.ShardRouter;
 import com.example.bankcards.util.CardNumberGenerator;
 import com.example.bankcards.util.EncryptionUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 @Service
@@ -31,12 +43,15 @@ import java.util.concurrent.ThreadLocalRandom;
 @Slf4j
 public class CardService {
     private final CardRepository cardRepository;
+    private final ArchivedCardRepository archivedCardRepository;
     private final UserRepository userRepository;
     private final CardMapper cardMapper;
     private final EncryptionUtil encryptionUtil;
+    private final CardPageCache pageCache;
+    private final ShardRouter shardRouter;
 
-    public CardDto getById(Long id) {
-        log.info("Retrieving card by ID: {}", id);
+    public CardDto getById(@ShardKey Long id) {
+        log.info(LogMarkers.SAMPLED, "Retrieving card by ID: {}", id);
         return cardRepository.findById(id)
                 .map(cardMapper::mapToDto)
                 .orElseThrow(() -> {
@@ -45,33 +60,89 @@ public class CardService {
                 });
     }
 
+    public Long getVersionById(@ShardKey Long id) {
+        return cardRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.warn("Card ID {} not found", id);
+                    return new CardNotFoundException(id);
+                });
+    }
+
+    public CardVersionSummary getVersionSummaryByHolderId(@ShardKey Long holderId) {
+        return cardRepository.summarizeVersionsByHolderId(holderId);
+    }
+
     public Collection<CardDto> getAll() {
-        log.info("Retrieving all cards");
+        return getAll(CardField.ALL);
+    }
+
+    /**
+     * Queries all shards in parallel and returns their cards in shard order.
+     */
+    public Collection<CardDto> getAll(Set<CardField> fields) {
+        log.info(LogMarkers.SAMPLED, "Retrieving all cards");
+        return shardRouter.onEachShard(() -> getAllOnShard(fields)).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private List<CardDto> getAllOnShard(Set<CardField> fields) {
+        if (!CardField.requiresEntity(fields)) {
+            return cardRepository.findAllSummaries().stream()
+                    .map(summary -> cardMapper.mapToDto(summary, fields))
+                    .toList();
+        }
         return cardRepository.findAll().stream()
-                .map(cardMapper::mapToDto)
+                .map(card -> cardMapper.mapToDto(card, fields))
                 .toList();
     }
 
-    public Page<CardDto> getCardsByUsername(String username, CardStatus status, int page, int size) {
-        log.info("Retrieving all cards for user '{}'", username);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    log.warn("User '{}' not found", username);
-                    return new UserNotFoundException(username);
-                });
+    public Page<CardDto> getCardsByHolderId(@ShardKey Long holderId, CardStatus status, int page, int size) {
+        return getCardsByHolderId(holderId, status, page, size, CardField.ALL);
+    }
+
+    public Page<CardDto> getCardsByHolderId(@ShardKey Long holderId, CardStatus status, int page, int size,
+                                            Set<CardField> fields) {
+        log.info(LogMarkers.SAMPLED, "Retrieving all cards for user ID {}", holderId);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Card> cards;
 
+        if (!CardField.requiresEntity(fields)) {
+            Page<CardSummary> summaries = status != null
+                    ? cardRepository.findSummariesByHolderIdAndStatus(holderId, status, pageable)
+                    : cardRepository.findSummariesByHolderId(holderId, pageable);
+            return summaries.map(summary -> cardMapper.mapToDto(summary, fields));
+        }
+
+        Page<Card> cards;
         if (status != null) {
-            cards = cardRepository.findByHolderAndStatus(user, status, pageable);
+            cards = cardRepository.findByHolderIdAndStatus(holderId, status, pageable);
         } else {
-            cards = cardRepository.findByHolder(user, pageable);
+            cards = cardRepository.findByHolderId(holderId, pageable);
+        }
+        return cards.map(card -> cardMapper.mapToDto(card, fields));
+    }
+
+    /**
+     * Pages over the holder's live cards followed by their archived cards. Archived cards are read
+     * only when the requested page reaches past the live ones.
+     */
+    public Page<CardDto> getCardsWithArchivedByHolderId(@ShardKey Long holderId, CardStatus status, int page,
+                                                        int size, Set<CardField> fields) {
+        Page<CardDto> live = getCardsByHolderId(holderId, status, page, size, fields);
+        long archived = archivedCardRepository.countByHolderId(holderId, status);
+        int remaining = size - live.getNumberOfElements();
+        if (archived == 0 || remaining == 0) {
+            return new PageImpl<>(live.getContent(), live.getPageable(), live.getTotalElements() + archived);
         }
-        return cards.map(cardMapper::mapToDto);
+        long offset = Math.max(0, (long) page * size - live.getTotalElements());
+        List<CardDto> content = new ArrayList<>(live.getContent());
+        archivedCardRepository.findByHolderId(holderId, status, offset, remaining)
+                .forEach(card -> content.add(cardMapper.mapToDto(card, fields)));
+        return new PageImpl<>(content, live.getPageable(), live.getTotalElements() + archived);
     }
 
     @Transactional
-    public CardDto create(Long id) {
+    public CardDto create(@ShardKey Long id) {
         log.info("Creating new card for user ID {}", id);
         User user = userRepository.findById(id).orElseThrow(() -> {
             log.warn("User ID: {} not found", id);
@@ -92,66 +163,80 @@ public class CardService {
         card.setBalance(BigDecimal.valueOf(randomAmount * 1_000L));
 
         Card savedCard = cardRepository.save(card);
+        pageCache.evictAfterCommit(id);
         log.info("Card created successfully with ID {} for user '{}'", savedCard.getId(), user.getUsername());
         return cardMapper.mapToDto(savedCard);
     }
 
     @Transactional
-    public CardDto changeCardStatus(Long cardId, CardStatus newStatus) {
+    public CardDto changeCardStatus(@ShardKey Long cardId, CardStatus newStatus) {
+        return changeCardStatus(cardId, newStatus, null);
+    }
+
+    @Transactional
+    public CardDto changeCardStatus(@ShardKey Long cardId, CardStatus newStatus, Long expectedVersion) {
         log.info("Changing status of card ID {} to {}", cardId, newStatus);
         Card card = cardRepository.findById(cardId).orElseThrow(() -> new CardNotFoundException(cardId));
+        if (expectedVersion != null && !expectedVersion.equals(card.getVersion())) {
+            log.warn("Card ID {} has version {}, but version {} was expected",
+                    cardId, card.getVersion(), expectedVersion);
+            throw new CardVersionMismatchException(cardId);
+        }
         if (card.getStatus().equals(newStatus)) {
             log.warn("Card ID '{}' status is already '{}'", cardId, newStatus);
             return cardMapper.mapToDto(card);
         }
         card.setStatus(newStatus);
-        Card updated = cardRepository.save(card);
+        Card updated = cardRepository.saveAndFlush(card);
+        pageCache.evictAfterCommit(updated.getHolder().getId());
         log.info("Card ID {} status changed to {}", updated.getId(), updated.getStatus());
         return cardMapper.mapToDto(updated);
     }
 
+    /**
+     * Soft-deletes the card with one statement; {@code PurgeJob} removes the row later.
+     */
     @Transactional
-    public void deleteById(Long id) {
+    public void deleteById(@ShardKey Long id) {
         log.info("Deleting card ID {}", id);
-        if (cardRepository.findById(id).isEmpty()) {
+        Long holderId = cardRepository.findHolderIdById(id).orElse(null);
+        if (holderId == null || cardRepository.softDeleteById(id, Instant.now()) == 0) {
             log.warn("Card ID {} not found", id);
             throw new CardNotFoundException(id);
         }
-        cardRepository.deleteById(id);
+        pageCache.evictAfterCommit(holderId);
         log.info("Card ID {} deleted successfully", id);
     }
 
-    public BigDecimal getBalanceByUsername(String username) {
-        log.info("Calculating total balance for user '{}'", username);
-        List<Card> cards = cardRepository.findByHolderUsername(username);
-        return cards.stream()
-                .map(Card::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public BigDecimal getBalanceByHolderId(@ShardKey Long holderId) {
+        log.info(LogMarkers.SAMPLED, "Calculating total balance for user ID {}", holderId);
+        return cardRepository.sumBalanceByHolderId(holderId);
     }
 
     @Transactional
-    public void transfer(@Valid TransferDto transferDto, String username) {
+    public void transfer(@Valid TransferDto transferDto, @ShardKey Long holderId) {
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        String outcome = "completed";
+        try {
+            doTransfer(transferDto, holderId);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.finish(transferDto.getFromCardId(), transferDto.getToCardId(), holderId,
+                    transferDto.getAmount(), outcome);
+        }
+    }
+
+    private void doTransfer(TransferDto transferDto, Long holderId) {
         Long fromCardId = transferDto.getFromCardId();
         Long toCardId = transferDto.getToCardId();
         log.info("Initiating transfer from card {} to {}", fromCardId, toCardId);
 
-        Card fromCard = cardRepository.findById(fromCardId)
-                .orElseThrow(() -> {
-                    log.warn("Card ID {} not found", fromCardId);
-                    return new CardNotFoundException(fromCardId);
-                });
-
-        Card toCard = cardRepository.findById(toCardId)
-                .orElseThrow(() -> {
-                    log.warn("Card ID {} not found", toCardId);
-                    return new CardNotFoundException(toCardId);
-                });
-
-        if (!fromCard.getHolder().getUsername().equals(username) ||
-                !toCard.getHolder().getUsername().equals(username)) {
-            log.warn("Unauthorized transfer attempt: user does not own the cards");
-            throw new UnauthorizedActionException("You can transfer only between your own cards.");
-        }
+        String notOwned = "You can transfer only between your own cards.";
+        Card fromCard = findOwnCard(fromCardId, holderId, notOwned);
+        Card toCard = findOwnCard(toCardId, holderId, notOwned);
         if (fromCard.getStatus() != CardStatus.ACTIVE) {
             log.warn("Card ID {} is not active", fromCardId);
             throw new CardNotActiveException(fromCardId);
@@ -171,24 +256,16 @@ public class CardService {
 
         cardRepository.save(fromCard);
         cardRepository.save(toCard);
+        pageCache.evictAfterCommit(holderId);
 
-        log.info("Transfer completed: user '{}' transferred {} from card '{}' to card '{}'",
-                username, amount, fromCardId, toCardId);
+        log.info("Transfer completed: user ID {} transferred {} from card '{}' to card '{}'",
+                holderId, amount, fromCardId, toCardId);
     }
 
     @Transactional
-    public void requestBlock(Long cardId, String username) {
-        log.info("User '{}' is requesting to block card ID {}", username, cardId);
-        Card card = cardRepository.findById(cardId)
-                .orElseThrow(() -> {
-                    log.warn("Card ID {} not found", cardId);
-                    return new CardNotFoundException(cardId);
-                });
-
-        if (!card.getHolder().getUsername().equals(username)) {
-            log.warn("Unauthorized block attempt: user does not own card ID {}", cardId);
-            throw new UnauthorizedActionException("You can request block only for your own cards.");
-        }
+    public void requestBlock(Long cardId, @ShardKey Long holderId) {
+        log.info("User ID {} is requesting to block card ID {}", holderId, cardId);
+        Card card = findOwnCard(cardId, holderId, "You can request block only for your own cards.");
         if (card.getStatus() != CardStatus.ACTIVE) {
             log.warn("Unauthorized block attempt: card ID {} is not active", cardId);
             throw new UnauthorizedActionException("Only active cards can be blocked.");
@@ -196,6 +273,23 @@ public class CardService {
 
         card.setStatus(CardStatus.BLOCKED);
         cardRepository.save(card);
+        pageCache.evictAfterCommit(holderId);
         log.info("Card with ID {} is successfully blocked", cardId);
     }
+
+    /**
+     * Looks the card up by id and holder, so a cards table partitioned by holder only probes one
+     * partition. Only a miss falls back to a lookup by id to tell a foreign card from a missing one.
+     */
+    private Card findOwnCard(Long cardId, Long holderId, String notOwnedMessage) {
+        return cardRepository.findByIdAndHolderId(cardId, holderId)
+                .orElseThrow(() -> {
+                    if (cardRepository.existsById(cardId)) {
+                        log.warn("Unauthorized attempt: user ID {} does not own card ID {}", holderId, cardId);
+                        return new UnauthorizedActionException(notOwnedMessage);
+                    }
+                    log.warn("Card ID {} not found", cardId);
+                    return new CardNotFoundException(cardId);
+                });
+    }
 }
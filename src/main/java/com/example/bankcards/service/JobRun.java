@@ -0,0 +1,118 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.shard.ShardContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs of one scheduled job: at most one at a time, each timed under {@code timerName} and tagged with its
+ * outcome, {@code success} or the simple name of the exception it failed with.
+ */
+@Slf4j
+final class JobRun {
+    private final String name;
+    private final String timerName;
+    private final String timerDescription;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * @param name the job as it starts a log line, e.g. {@code Card expiry}
+     */
+    JobRun(String name, String timerName, String timerDescription, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timerName = timerName;
+        this.timerDescription = timerDescription;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code body} and then hands its outcome and duration to {@code finished}, which records the job's
+     * own meters and logs the run, also when {@code body} failed.
+     *
+     * @return the result of {@code body}, or zero if another run is still in progress
+     */
+    int run(IntSupplier body, Finished finished) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("{} run skipped, the previous run is still in progress", name);
+            return 0;
+        }
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return body.getAsInt();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            running.set(false);
+            long elapsed = System.nanoTime() - start;
+            Timer.builder(timerName)
+                    .description(timerDescription)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            finished.accept(outcome, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Runs {@code partitions} on a pool of {@code threads} threads named {@code <threadName>-<n>}, each on the
+     * caller's shard, and waits for all of them. The first failure is rethrown, an {@link IOException} wrapped
+     * in an {@link UncheckedIOException}.
+     */
+    void runInParallel(String threadName, int threads, List<Callable<Void>> partitions) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                task -> new Thread(ShardContext.propagate(task), threadName + "-" + threadIndex.incrementAndGet()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Callable<Void> partition : partitions) {
+                futures.add(executor.submit(partition));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + " run interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException(cause);
+            }
+            throw new IllegalStateException(name + " partition failed", e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    interface Finished {
+        void accept(String outcome, long millis);
+    }
+}
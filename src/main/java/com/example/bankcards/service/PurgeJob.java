@@ -0,0 +1,123 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.PurgeConfig;
+import com.example.bankcards.shard.ShardRouter;
+import com.example.bankcards.shard.UserDirectory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Removes soft-deleted users and cards once they are older than the retention period. Rows are selected
+ * by the {@code deleted_at} indexes in chunks of {@code chunk-size} ids, and each chunk is deleted by a
+ * few set-based statements committed in its own transaction, so a purge of many rows never holds locks
+ * or a connection for long. For users the roles and live and archived cards go first; refresh tokens are removed by the
+ * foreign key cascade.
+ */
+@Slf4j
+@Component
+public class PurgeJob {
+    static final String RUN_TIMER_NAME = "bankcards.purge.run";
+    static final String DELETED_SUMMARY_NAME = "bankcards.purge.deleted";
+
+    private static final String FIND_USERS =
+            "select id from users where deleted_at < :cutoff order by id limit :limit";
+    private static final String FIND_CARDS =
+            "select id from cards where deleted_at < :cutoff order by id limit :limit";
+    private static final List<String> DELETE_USERS = List.of(
+            "delete from user_roles where user_id in (:ids)",
+            "delete from cards where card_holder_id in (:ids)",
+            "delete from cards_archive where card_holder_id in (:ids)",
+            "delete from users where id in (:ids)");
+    private static final List<String> DELETE_CARDS = List.of(
+            "delete from cards where id in (:ids)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+    private final UserDirectory userDirectory;
+
+    private final JobRun jobRun;
+
+    public PurgeJob(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                    PurgeConfig config, MeterRegistry meterRegistry, ShardRouter shardRouter,
+                    UserDirectory userDirectory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.shardRouter = shardRouter;
+        this.userDirectory = userDirectory;
+        this.jobRun = new JobRun("Purge", RUN_TIMER_NAME, "Duration of purge runs", meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${purge.interval:PT5M}", initialDelayString = "${purge.interval:PT5M}")
+    public void run() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(config.getRetention());
+        shardRouter.forEachShard(() -> purge(cutoff));
+    }
+
+    public int purge(Instant cutoff) {
+        AtomicInteger users = new AtomicInteger();
+        AtomicInteger cards = new AtomicInteger();
+        return jobRun.run(() -> {
+            users.set(purge(FIND_USERS, DELETE_USERS, cutoff, userDirectory::removeAll));
+            cards.set(purge(FIND_CARDS, DELETE_CARDS, cutoff, ids -> { }));
+            return users.get() + cards.get();
+        }, (outcome, millis) -> {
+            record("users", outcome, users.get());
+            record("cards", outcome, cards.get());
+            log.info("Purge run finished with {}: {} users and {} cards removed, {} ms",
+                    outcome, users.get(), cards.get(), millis);
+        });
+    }
+
+    /**
+     * Purged rows no longer match {@code find}, so each round picks the next chunk until one comes back
+     * short. {@code purged} is called with the ids of each chunk once it is committed.
+     */
+    private int purge(String find, List<String> deletes, Instant cutoff, Consumer<List<Long>> purged) {
+        Map<String, Object> selection = Map.of("cutoff", Timestamp.from(cutoff), "limit", config.getChunkSize());
+        int count = 0;
+        List<Long> chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(find, selection, Long.class);
+                if (!ids.isEmpty()) {
+                    for (String delete : deletes) {
+                        jdbcTemplate.update(delete, Map.of("ids", ids));
+                    }
+                }
+                return ids;
+            });
+            purged.accept(chunk);
+            count += chunk.size();
+        } while (chunk.size() >= config.getChunkSize());
+        return count;
+    }
+
+    private void record(String table, String outcome, int deleted) {
+        DistributionSummary.builder(DELETED_SUMMARY_NAME)
+                .description("Rows removed per purge run")
+                .tag("table", table)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(deleted);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.StatementConfig;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.StatementLine;
+import com.example.bankcards.shard.ShardContext;
+import com.example.bankcards.shard.ShardRouter;
+import com.example.bankcards.util.EncryptionUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Generates monthly statements for every card holder without loading users or cards as entities.
+ * Holders are split into {@code holder id mod partitions} partitions generated in parallel; each
+ * partition streams its cards in holder order over one read-only cursor, groups consecutive lines
+ * into one statement per holder and writes it as {@code <directory>/<yyyy-MM>/<id / 1000>/<id>.json.gz}.
+ * The last holder written is checkpointed per partition, so a restarted run continues after it.
+ */
+@Slf4j
+@Component
+public class StatementJob {
+    static final String RUN_TIMER_NAME = "bankcards.statements.run";
+    static final String WRITTEN_SUMMARY_NAME = "bankcards.statements.written";
+
+    private final CardRepository cardRepository;
+    private final StatementConfig config;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StatementWriter writer;
+    private final ShardRouter shardRouter;
+
+    private final JobRun jobRun;
+
+    public StatementJob(CardRepository cardRepository, StatementConfig config, MeterRegistry meterRegistry,
+                        PlatformTransactionManager transactionManager, EncryptionUtil encryptionUtil,
+                        ObjectMapper objectMapper, ShardRouter shardRouter) {
+        this.cardRepository = cardRepository;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writer = new StatementWriter(encryptionUtil, objectMapper.getFactory(), config.getBufferSize());
+        this.shardRouter = shardRouter;
+        this.jobRun = new JobRun("Statement", RUN_TIMER_NAME, "Duration of monthly statement runs", meterRegistry);
+    }
+
+    @Scheduled(cron = "${statement.cron:0 0 3 1 * *}", zone = "${statement.zone:UTC}")
+    public void run() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        YearMonth period = YearMonth.now(config.getZone()).minusMonths(1);
+        shardRouter.forEachShard(() -> generate(period));
+    }
+
+    public int generate(YearMonth period) {
+        AtomicInteger written = new AtomicInteger();
+        return jobRun.run(() -> {
+            Path periodDirectory = config.getDirectory().resolve(period.toString());
+            try {
+                Files.createDirectories(periodDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            generateParallel(periodDirectory, period, written);
+            return written.get();
+        }, (outcome, millis) -> {
+            DistributionSummary.builder(WRITTEN_SUMMARY_NAME)
+                    .description("Statements written per run")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(written.get());
+            log.info("Statement run for {} finished with {}: {} statements written, {} ms",
+                    period, outcome, written.get(), millis);
+        });
+    }
+
+    private void generateParallel(Path periodDirectory, YearMonth period, AtomicInteger written) {
+        int partitions = Math.max(1, config.getPartitions());
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            int current = partition;
+            tasks.add(() -> {
+                generatePartition(periodDirectory, period, partitions, current, written);
+                return null;
+            });
+        }
+        jobRun.runInParallel("statements", partitions, tasks);
+    }
+
+    private void generatePartition(Path periodDirectory, YearMonth period, int partitions, int partition,
+                                   AtomicInteger written) throws IOException {
+        Integer shard = ShardContext.current();
+        Path checkpoint = periodDirectory.resolve(".checkpoint-" + (shard != null ? "shard-" + shard + "-" : "")
+                + partition + "-of-" + partitions);
+        long afterHolderId = readCheckpoint(checkpoint);
+        if (afterHolderId > 0) {
+            log.info("Resuming statements for {} partition {} after holder {}", period, partition, afterHolderId);
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<StatementLine> lines =
+                         cardRepository.streamStatementLines(partitions, partition, afterHolderId)) {
+                writeStatements(lines.iterator(), periodDirectory, period, checkpoint, written);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeStatements(Iterator<StatementLine> lines, Path periodDirectory, YearMonth period,
+                                 Path checkpoint, AtomicInteger written) throws IOException {
+        List<StatementLine> statement = new ArrayList<>();
+        int sinceCheckpoint = 0;
+        while (lines.hasNext()) {
+            StatementLine line = lines.next();
+            if (!statement.isEmpty() && !statement.get(0).holderId().equals(line.holderId())) {
+                writer.write(periodDirectory, period, statement);
+                written.incrementAndGet();
+                if (++sinceCheckpoint >= config.getCheckpointInterval()) {
+                    writeCheckpoint(checkpoint, statement.get(0).holderId());
+                    sinceCheckpoint = 0;
+                }
+                statement = new ArrayList<>();
+            }
+            statement.add(line);
+        }
+        if (!statement.isEmpty()) {
+            writer.write(periodDirectory, period, statement);
+            written.incrementAndGet();
+            writeCheckpoint(checkpoint, statement.get(0).holderId());
+        }
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpoint, StandardCharsets.US_ASCII).trim());
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long holderId) throws IOException {
+        Path partial = checkpoint.resolveSibling(checkpoint.getFileName() + ".part");
+        Files.writeString(partial, Long.toString(holderId), StandardCharsets.US_ASCII);
+        Files.move(partial, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.projection.StatementLine;
+import com.example.bankcards.util.CardNumberMasker;
+import com.example.bankcards.util.EncryptionUtil;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders one user's statement as gzip-compressed JSON. The file is written next to its final name and
+ * moved into place only when complete, so a crash never leaves a truncated statement behind.
+ */
+class StatementWriter {
+    private static final int USERS_PER_DIRECTORY = 1_000;
+
+    private final EncryptionUtil encryptionUtil;
+    private final JsonFactory jsonFactory;
+    private final int bufferSize;
+
+    StatementWriter(EncryptionUtil encryptionUtil, JsonFactory jsonFactory, int bufferSize) {
+        this.encryptionUtil = encryptionUtil;
+        this.jsonFactory = jsonFactory;
+        this.bufferSize = bufferSize;
+    }
+
+    static Path statementFile(Path periodDirectory, long holderId) {
+        return periodDirectory.resolve(Long.toString(holderId / USERS_PER_DIRECTORY))
+                .resolve(holderId + ".json.gz");
+    }
+
+    void write(Path periodDirectory, YearMonth period, List<StatementLine> lines) throws IOException {
+        StatementLine first = lines.get(0);
+        Path target = statementFile(periodDirectory, first.holderId());
+        Files.createDirectories(target.getParent());
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new GZIPOutputStream(Channels.newOutputStream(channel), bufferSize);
+             JsonGenerator gen = jsonFactory.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("period", period.toString());
+            gen.writeNumberField("userId", first.holderId());
+            gen.writeStringField("username", first.username());
+            gen.writeArrayFieldStart("cards");
+            BigDecimal total = BigDecimal.ZERO;
+            for (StatementLine line : lines) {
+                gen.writeStartObject();
+                gen.writeNumberField("id", line.cardId());
+                gen.writeStringField("number",
+                        CardNumberMasker.maskCardNumber(encryptionUtil.decrypt(line.number())));
+                gen.writeStringField("expirationDate", line.expirationDate().toString());
+                gen.writeStringField("status", line.status().name());
+                gen.writeNumberField("balance", line.balance());
+                gen.writeEndObject();
+                total = total.add(line.balance());
+            }
+            gen.writeEndArray();
+            gen.writeNumberField("totalBalance", total);
+            gen.writeEndObject();
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
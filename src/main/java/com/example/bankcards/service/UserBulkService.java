@@ -0,0 +1,88 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.PurgeConfig;
+import com.example.bankcards.dto.BulkDeleteResult;
+import com.example.bankcards.security.TokenVersionCache;
+import com.example.bankcards.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Soft-deletes many users at once. Each chunk of users and all of their cards are marked deleted by two
+ * statements committed in one transaction; issued tokens stop working because the token version is
+ * bumped. {@code PurgeJob} removes the rows later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserBulkService {
+    private static final String DELETE_USERS = "update users set deleted_at = ?, token_version = token_version + 1 "
+            + "where id = any(?) and deleted_at is null returning id";
+    private static final String DELETE_CARDS = "update cards set deleted_at = ?, version = version + 1 "
+            + "where card_holder_id = any(?) and deleted_at is null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenVersionCache tokenVersionCache;
+    private final CardPageCache pageCache;
+    private final PurgeConfig config;
+    private final ShardRouter shardRouter;
+
+    /**
+     * Each shard deletes its own users in parallel.
+     */
+    public BulkDeleteResult softDelete(Set<Long> selected) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Long> deleted = shardRouter.onEachShard(() -> softDelete(shardRouter.onCurrentShard(selected), now))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+        log.info("Bulk delete soft-deleted {} users", deleted.size());
+        return new BulkDeleteResult(deleted.size(), deleted);
+    }
+
+    /**
+     * Ids are processed in ascending order so concurrent bulk deletes lock rows in the same order.
+     */
+    private List<Long> softDelete(List<Long> selected, Timestamp now) {
+        List<Long> ids = selected.stream().sorted().toList();
+        List<Long> deleted = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += config.getChunkSize()) {
+            Long[] chunk = ids.subList(from, Math.min(from + config.getChunkSize(), ids.size())).toArray(Long[]::new);
+            deleted.addAll(transactionTemplate.execute(status -> softDeleteChunk(chunk, now)));
+        }
+        return deleted;
+    }
+
+    private List<Long> softDeleteChunk(Long[] chunk, Timestamp now) {
+        List<Long> users = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DELETE_USERS);
+            statement.setTimestamp(1, now);
+            statement.setArray(2, connection.createArrayOf("bigint", chunk));
+            return statement;
+        }, (resultSet, row) -> resultSet.getLong(1));
+        if (users.isEmpty()) {
+            return users;
+        }
+        Long[] holders = users.toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DELETE_CARDS);
+            statement.setTimestamp(1, now);
+            statement.setArray(2, connection.createArrayOf("bigint", holders));
+            return statement;
+        });
+        users.forEach(tokenVersionCache::evictAfterCommit);
+        users.forEach(pageCache::evictAfterCommit);
+        return users;
+    }
+}
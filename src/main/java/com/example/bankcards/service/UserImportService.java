@@ -0,0 +1,275 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.UserImportConfig;
+import com.example.bankcards.dto.UserImportResult;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.exception.InvalidImportFileException;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.shard.ShardRouter;
+import com.example.bankcards.shard.UserDirectory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates users from a CSV file with the header {@code username,password,roles}, roles separated by
+ * {@code |}. The file is read line by line and processed in batches: usernames are de-duplicated within
+ * the file in memory and against the database with one query per batch, passwords are hashed on a
+ * fork-join pool, and users and their roles are inserted with JDBC batches in one transaction per batch
+ * and shard.
+ * Rows that cannot be imported are reported with their line number instead of failing the import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+    static final String HEADER = "username,password,roles";
+    private static final int MIN_LENGTH = 4;
+
+    private static final String FIND_EXISTING = "select username from users where username in (:usernames)";
+    private static final String INSERT_USER =
+            "insert into users (username, password, token_version) values (:username, :password, 0)";
+    private static final String INSERT_USER_ROLE =
+            "insert into user_roles (user_id, role_id) select u.id, :roleId from users u where u.username = :username";
+
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserImportConfig config;
+    private final ShardRouter shardRouter;
+    private final UserDirectory userDirectory;
+
+    public UserImportResult importCsv(InputStream csv) throws IOException {
+        Map<String, Long> roleIds = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            roleIds.put(role.getName(), role.getId());
+        }
+        Report report = new Report(config.getMaxReportedErrors());
+        ForkJoinPool hashingPool = new ForkJoinPool(Math.max(1, config.getHashingParallelism()));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || !HEADER.equalsIgnoreCase(header.strip().replace("\uFEFF", ""))) {
+                throw new InvalidImportFileException("CSV header must be '" + HEADER + "'");
+            }
+            Set<String> seen = new HashSet<>();
+            List<Row> batch = new ArrayList<>(config.getBatchSize());
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row;
+                try {
+                    row = parse(lineNumber, line, roleIds);
+                } catch (IllegalArgumentException e) {
+                    report.reject(lineNumber, null, e.getMessage());
+                    continue;
+                }
+                if (!seen.add(row.username())) {
+                    report.reject(row, "Duplicate username in file");
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= config.getBatchSize()) {
+                    importBatch(batch, hashingPool, report);
+                    batch = new ArrayList<>(config.getBatchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, hashingPool, report);
+            }
+        } finally {
+            hashingPool.shutdown();
+        }
+        log.info("User import finished: {} imported, {} rejected", report.imported, report.rejected);
+        report.errors.sort(Comparator.comparingLong(UserImportResult.RowError::line));
+        return new UserImportResult(report.imported, report.rejected, report.errors);
+    }
+
+    private void importBatch(List<Row> batch, ForkJoinPool hashingPool, Report report) {
+        Map<String, Integer> shards = userDirectory.shardsOf(batch.stream().map(Row::username).toList());
+        Map<Integer, List<Row>> byShard = new TreeMap<>();
+        for (Row row : batch) {
+            byShard.computeIfAbsent(shards.get(row.username()), shard -> new ArrayList<>()).add(row);
+        }
+        byShard.forEach((shard, rows) -> shardRouter.onShard(shard, () -> {
+            importShardBatch(rows, hashingPool, report);
+            return null;
+        }));
+    }
+
+    private void importShardBatch(List<Row> batch, ForkJoinPool hashingPool, Report report) {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(FIND_EXISTING,
+                Map.of("usernames", batch.stream().map(Row::username).toList()), String.class));
+        List<Row> fresh = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            if (existing.contains(row.username())) {
+                report.reject(row, "Username already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashingPool.submit(() -> fresh.parallelStream()
+                .map(row -> passwordEncoder.encode(row.password()))
+                .toList()).join();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(fresh, hashes));
+            report.imported += fresh.size();
+        } catch (DuplicateKeyException e) {
+            // a username was created concurrently since the check; fall back to one transaction per row
+            for (int i = 0; i < fresh.size(); i++) {
+                Row row = fresh.get(i);
+                List<String> hash = List.of(hashes.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row), hash));
+                    report.imported++;
+                } catch (DuplicateKeyException duplicate) {
+                    report.reject(row, "Username already exists");
+                }
+            }
+        }
+        log.info("Imported batch of {} users", fresh.size());
+    }
+
+    private void insert(List<Row> rows, List<String> hashes) {
+        SqlParameterSource[] users = new SqlParameterSource[rows.size()];
+        List<SqlParameterSource> userRoles = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            users[i] = new MapSqlParameterSource()
+                    .addValue("username", row.username())
+                    .addValue("password", hashes.get(i));
+            for (Long roleId : row.roleIds()) {
+                userRoles.add(new MapSqlParameterSource()
+                        .addValue("roleId", roleId)
+                        .addValue("username", row.username()));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, users);
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles.toArray(SqlParameterSource[]::new));
+    }
+
+    static Row parse(long lineNumber, String line, Map<String, Long> roleIds) {
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() != 3) {
+            throw new IllegalArgumentException("Expected 3 fields but found " + fields.size());
+        }
+        String username = fields.get(0).strip();
+        String password = fields.get(1);
+        if (username.length() < MIN_LENGTH) {
+            throw new IllegalArgumentException("Username must be at least " + MIN_LENGTH + " characters");
+        }
+        if (password.isBlank() || password.length() < MIN_LENGTH) {
+            throw new IllegalArgumentException("Password must be at least " + MIN_LENGTH + " characters");
+        }
+        Set<Long> rowRoleIds = new LinkedHashSet<>();
+        for (String name : fields.get(2).split("\\|")) {
+            String roleName = name.strip();
+            if (roleName.isEmpty()) {
+                continue;
+            }
+            Long roleId = roleIds.get(roleName);
+            if (roleId == null) {
+                throw new IllegalArgumentException("Unknown role '" + roleName + "'");
+            }
+            rowRoleIds.add(roleId);
+        }
+        if (rowRoleIds.isEmpty()) {
+            throw new IllegalArgumentException("User must have at least one role");
+        }
+        return new Row(lineNumber, username, password, rowRoleIds);
+    }
+
+    /**
+     * Splits one RFC 4180 line: fields may be quoted, and a doubled quote inside a quoted field is a
+     * literal quote. Quoted fields cannot span lines.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    record Row(long line, String username, String password, Set<Long> roleIds) {
+        @Override
+        public String toString() {
+            return "Row[line=" + line + ", username=" + username + "]";
+        }
+    }
+
+    private static class Report {
+        private final int maxErrors;
+        private final List<UserImportResult.RowError> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(Row row, String message) {
+            reject(row.line(), row.username(), message);
+        }
+
+        void reject(long line, String username, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportResult.RowError(line, username, message));
+            }
+        }
+    }
+}
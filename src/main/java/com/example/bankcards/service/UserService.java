@@ -6,15 +6,23 @@ import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.DuplicateUsernameException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.logging.LogMarkers;
 import com.example.bankcards.mapper.UserMapper;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.TokenVersionCache;
+import com.example.bankcards.shard.ShardKey;
+import com.example.bankcards.shard.ShardRouter;
+import com.example.bankcards.shard.UserDirectory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -25,12 +33,17 @@ import java.util.Set;
 @Slf4j
 public class UserService {
     private final UserRepository userRepository;
+    private final CardRepository cardRepository;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
+    private final CardPageCache pageCache;
+    private final ShardRouter shardRouter;
+    private final UserDirectory userDirectory;
 
-    public UserDto getById(Long id) {
-        log.info("Retrieving user by ID: {}", id);
+    public UserDto getById(@ShardKey Long id) {
+        log.info(LogMarkers.SAMPLED, "Retrieving user by ID: {}", id);
         return userRepository.findById(id)
                 .map(userMapper::mapToDto)
                 .orElseThrow(() -> {
@@ -39,15 +52,21 @@ public class UserService {
                 });
     }
 
+    /**
+     * Queries all shards in parallel and returns their users in shard order.
+     */
     public List<UserDto> getAll() {
-        log.info("Retrieving all users");
-        return userRepository.findAll().stream()
-                .map(userMapper::mapToDto)
+        log.info(LogMarkers.SAMPLED, "Retrieving all users");
+        return shardRouter.onEachShard(() -> userRepository.findAll().stream()
+                        .map(userMapper::mapToDto)
+                        .toList())
+                .stream()
+                .flatMap(List::stream)
                 .toList();
     }
 
     @Transactional
-    public UserDto create(UserDto userDto) {
+    public UserDto create(@ShardKey(value = ShardKey.Kind.USERNAME, property = "username") UserDto userDto) {
         String username = userDto.getUsername();
         log.info("Creating new user '{}'", username);
         if (userRepository.findByUsername(username).isPresent()) {
@@ -62,13 +81,20 @@ public class UserService {
         user.setRoles(userRoles);
         user.setCards(new ArrayList<>());
 
-        User saved = userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // a soft-deleted user keeps the username until it is purged
+            log.warn("User '{}' already exists", username);
+            throw new DuplicateUsernameException(username);
+        }
         log.info("User created successfully with ID {}", saved.getId());
         return userMapper.mapToDto(saved);
     }
 
     @Transactional
-    public UserDto update(Long userId, UserUpdateDto userDto) {
+    public UserDto update(@ShardKey Long userId, UserUpdateDto userDto) {
         log.info("Updating user ID {}", userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
@@ -76,8 +102,16 @@ public class UserService {
                     return new UserNotFoundException(userId);
                 });
 
-        if (userDto.getUsername() != null) {
+        if (userDto.getUsername() != null && !userDto.getUsername().equals(user.getUsername())) {
+            if (userDirectory.isTaken(userDto.getUsername())) {
+                log.warn("User '{}' already exists", userDto.getUsername());
+                throw new DuplicateUsernameException(userDto.getUsername());
+            }
             user.setUsername(userDto.getUsername());
+            userDirectory.renamedAfterCommit(userId, userDto.getUsername());
+            // the cards show the username as their holder name, so their ETags have to change
+            cardRepository.touchByHolderId(userId);
+            pageCache.evictAfterCommit(userId);
         }
         if (userDto.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(userDto.getPassword()));
@@ -86,20 +120,31 @@ public class UserService {
             Set<Role> userRoles = new HashSet<>(roleRepository.findByNameIn(userDto.getRoles()));
             user.setRoles(userRoles);
         }
+        if (userDto.getUsername() != null || userDto.getPassword() != null || userDto.getRoles() != null) {
+            log.info("Invalidating issued tokens of user ID {}", userId);
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            tokenVersionCache.evictAfterCommit(userId);
+        }
         user = userRepository.save(user);
         log.info("User ID {} successfully updated", userId);
         return userMapper.mapToDto(user);
     }
 
+    /**
+     * Soft-deletes the user and all of their cards with two statements and invalidates issued tokens;
+     * {@code PurgeJob} removes the rows later.
+     */
     @Transactional
-    public void deleteById(Long id) {
+    public void deleteById(@ShardKey Long id) {
         log.info("Deleting user ID {}", id);
-        if (userRepository.findById(id).isEmpty()) {
+        Instant now = Instant.now();
+        if (userRepository.softDeleteById(id, now) == 0) {
             log.warn("User ID {} not found", id);
             throw new UserNotFoundException(id);
         }
-
-        userRepository.deleteById(id);
-        log.info("User ID {} deleted successfully", id);
+        int cards = cardRepository.softDeleteByHolderId(id, now);
+        tokenVersionCache.evictAfterCommit(id);
+        pageCache.evictAfterCommit(id);
+        log.info("User ID {} deleted successfully with {} cards", id, cards);
     }
 }
@@ -0,0 +1,57 @@
+package com.example.bankcards.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread talks to. {@link ShardRoutingDataSource} hands out connections of this
+ * shard; without one, connections go to shard 0, which also holds the global tables.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Switches the current thread to {@code shard}.
+     *
+     * @return the previous shard, to be passed to {@link #restore}
+     */
+    static Integer enter(Integer shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T call(Integer shard, Supplier<T> work) {
+        Integer previous = enter(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs {@code task} on the shard of the thread calling this method, for worker threads of a job.
+     */
+    public static Runnable propagate(Runnable task) {
+        Integer shard = CURRENT.get();
+        return () -> call(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the parameter that decides which shard a method runs on; {@link ShardRoutingAspect} sets the
+ * shard before the method, and before any transaction it starts.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+    Kind value() default Kind.ID;
+
+    /**
+     * Bean property of the argument holding the key, e.g. {@code "id"} of a user; empty for the
+     * argument itself.
+     */
+    String property() default "";
+
+    enum Kind {
+        /**
+         * A user id, or the id of a card, which is always on its holder's shard.
+         */
+        ID,
+        /**
+         * A username, looked up in {@link UserDirectory}.
+         */
+        USERNAME,
+        /**
+         * A refresh token issued by {@link ShardRouter#tagToken}.
+         */
+        TOKEN
+    }
+}
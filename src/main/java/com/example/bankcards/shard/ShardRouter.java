@@ -0,0 +1,183 @@
+package com.example.bankcards.shard;
+
+import com.example.bankcards.config.ShardingConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Maps users, cards and refresh tokens to shards and runs work on them. Each shard hands out user and
+ * card ids from sequences that start at its index and step by the number of shards, so the shard of
+ * any user or card follows from its id, and a user's cards live on the user's shard. New users are
+ * placed by a hash of their username.
+ * <p>
+ * Without sharding there is a single shard and all methods run their work directly.
+ */
+@Component
+@Slf4j
+public class ShardRouter {
+    private static final char TOKEN_SEPARATOR = '.';
+
+    private final List<DataSource> shards;
+    private final ExecutorService fanOut;
+
+    public ShardRouter(ShardingConfig config, Optional<ShardRoutingDataSource> dataSource) {
+        this.shards = dataSource.map(ShardRoutingDataSource::getShards).orElse(List.of());
+        if (shards.isEmpty()) {
+            this.fanOut = null;
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(Math.max(1, Math.min(config.getFanOutThreads(), shards.size())),
+                task -> new Thread(task, "shard-fan-out-" + threadIndex.incrementAndGet()));
+        log.info("Routing users and cards over {} shards", shards.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (fanOut != null) {
+            fanOut.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return !shards.isEmpty();
+    }
+
+    public int count() {
+        return Math.max(1, shards.size());
+    }
+
+    /**
+     * The shard of a user id, or of a card id.
+     */
+    public int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) count());
+    }
+
+    /**
+     * The shard a new user with this username is created on.
+     */
+    public int shardOfName(String username) {
+        return Math.floorMod(username.hashCode(), count());
+    }
+
+    /**
+     * Prefixes a new refresh token with the shard of its user, where it is stored.
+     */
+    public String tagToken(Long userId, String token) {
+        return isEnabled() ? shardOf(userId) + String.valueOf(TOKEN_SEPARATOR) + token : token;
+    }
+
+    public int shardOfToken(String token) {
+        int separator = token.indexOf(TOKEN_SEPARATOR);
+        if (!isEnabled() || separator <= 0) {
+            return 0;
+        }
+        try {
+            int shard = Integer.parseInt(token, 0, separator, 10);
+            return shard >= 0 && shard < count() ? shard : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The physical data source of a shard, for queries that must not join the current transaction.
+     */
+    public DataSource dataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * Runs {@code work} on {@code shard}. A thread inside a transaction cannot switch shards, since the
+     * transaction holds a connection to its own shard.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (!isEnabled()) {
+            return work.get();
+        }
+        Integer previous = enter(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    Integer enter(int shard) {
+        Integer current = ShardContext.current();
+        if (current != null && current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch from shard " + current + " to shard " + shard
+                    + " inside a transaction");
+        }
+        return ShardContext.enter(shard);
+    }
+
+    /**
+     * Runs {@code work} on every shard in turn, for scheduled jobs.
+     */
+    public void forEachShard(Runnable work) {
+        for (int shard = 0; shard < count(); shard++) {
+            onShard(shard, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code work} on all shards in parallel and returns the results in shard order.
+     */
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        if (!isEnabled()) {
+            return List.of(work.get());
+        }
+        List<Future<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < count(); shard++) {
+            int current = shard;
+            futures.add(fanOut.submit(() -> ShardContext.call(current, work)));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * The ids among {@code ids} that belong to the current shard.
+     */
+    public List<Long> onCurrentShard(Collection<Long> ids) {
+        if (!isEnabled()) {
+            return List.copyOf(ids);
+        }
+        int current = Objects.requireNonNullElse(ShardContext.current(), 0);
+        return ids.stream().filter(id -> shardOf(id) == current).toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs methods with a {@link ShardKey} parameter on the shard of that argument. It is ordered first,
+ * outside {@code @Transactional}, so the transaction's connection comes from the right shard.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+    private final ShardRouter shardRouter;
+    private final UserDirectory userDirectory;
+
+    private final Map<Method, KeyParameter> keyParameters = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.example.bankcards..*(.., @com.example.bankcards.shard.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!shardRouter.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        KeyParameter parameter = keyParameters.computeIfAbsent(method, ShardRoutingAspect::findKeyParameter);
+        Object argument = joinPoint.getArgs()[parameter.index()];
+        Object key = argument == null || parameter.key().property().isEmpty()
+                ? argument
+                : new BeanWrapperImpl(argument).getPropertyValue(parameter.key().property());
+        if (key == null) {
+            return joinPoint.proceed();
+        }
+        int shard = switch (parameter.key().value()) {
+            case ID -> shardRouter.shardOf(((Number) key).longValue());
+            case USERNAME -> userDirectory.shardOf(key.toString());
+            case TOKEN -> shardRouter.shardOfToken(key.toString());
+        };
+        Integer previous = shardRouter.enter(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private static KeyParameter findKeyParameter(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey key) {
+                    return new KeyParameter(i, key);
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter on " + method);
+    }
+
+    private record KeyParameter(int index, ShardKey key) {
+    }
+}
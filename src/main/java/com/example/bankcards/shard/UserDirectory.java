@@ -0,0 +1,120 @@
+package com.example.bankcards.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds the shard of a username. A user normally lives on the shard its username hashes to; users
+ * placed elsewhere, because they were split out of a single database by id or renamed later, have a
+ * row in {@code user_directory} on shard 0. The directory is read and written outside the current
+ * transaction, on shard 0's own connections.
+ */
+@Component
+@Slf4j
+public class UserDirectory {
+    private static final String FIND = "select user_id from user_directory where username = ?";
+    private static final String EXISTS = "select count(*) from users where username = ?";
+    private static final String DELETE_BY_USER = "delete from user_directory where user_id = ?";
+    private static final String INSERT = "insert into user_directory (username, user_id) values (?, ?)";
+    private static final String DELETE_BY_USERS = "delete from user_directory where user_id in (:ids)";
+    private static final String FIND_ALL = "select username, user_id from user_directory where username in (:usernames)";
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate directory;
+
+    public UserDirectory(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+        this.directory = shardRouter.isEnabled() ? new JdbcTemplate(shardRouter.dataSource(0)) : null;
+    }
+
+    public int shardOf(String username) {
+        if (!shardRouter.isEnabled()) {
+            return 0;
+        }
+        return find(username).map(shardRouter::shardOf).orElseGet(() -> shardRouter.shardOfName(username));
+    }
+
+    /**
+     * The shard of each username, with one directory query.
+     */
+    public Map<String, Integer> shardsOf(Collection<String> usernames) {
+        Map<String, Integer> shards = new HashMap<>();
+        if (!shardRouter.isEnabled()) {
+            usernames.forEach(username -> shards.put(username, 0));
+            return shards;
+        }
+        new NamedParameterJdbcTemplate(directory).query(FIND_ALL, Map.of("usernames", usernames),
+                (RowCallbackHandler) row -> shards.put(row.getString(1), shardRouter.shardOf(row.getLong(2))));
+        usernames.forEach(username -> shards.computeIfAbsent(username, shardRouter::shardOfName));
+        return shards;
+    }
+
+    /**
+     * Whether a user, deleted or not, holds the username on any shard. Always {@code false} without
+     * sharding, where the unique constraint on {@code users.username} decides.
+     */
+    public boolean isTaken(String username) {
+        if (!shardRouter.isEnabled()) {
+            return false;
+        }
+        if (find(username).isPresent()) {
+            return true;
+        }
+        JdbcTemplate shard = new JdbcTemplate(shardRouter.dataSource(shardRouter.shardOfName(username)));
+        Integer count = shard.queryForObject(EXISTS, Integer.class, username);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Points the new username at the user's shard once the rename commits.
+     */
+    public void renamedAfterCommit(Long userId, String username) {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    renamed(userId, username);
+                }
+            });
+        } else {
+            renamed(userId, username);
+        }
+    }
+
+    /**
+     * Drops the entries of purged users.
+     */
+    public void removeAll(Collection<Long> userIds) {
+        if (!shardRouter.isEnabled() || userIds.isEmpty()) {
+            return;
+        }
+        new NamedParameterJdbcTemplate(directory).update(DELETE_BY_USERS, Map.of("ids", userIds));
+    }
+
+    private Optional<Long> find(String username) {
+        List<Long> ids = directory.queryForList(FIND, Long.class, username);
+        return ids.stream().findFirst();
+    }
+
+    private void renamed(Long userId, String username) {
+        directory.update(DELETE_BY_USER, userId);
+        if (shardRouter.shardOfName(username) != shardRouter.shardOf(userId)) {
+            directory.update(INSERT, username, userId);
+        }
+        log.info("Moved user ID {} to username '{}' in the user directory", userId, username);
+    }
+}
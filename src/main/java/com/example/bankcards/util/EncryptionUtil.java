@@ -1,5 +1,8 @@
 package com.example.bankcards.util;
 
+import com.example.bankcards.profiling.CardCryptoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -18,11 +21,45 @@ public class EncryptionUtil {
 
     private static final String ALGORITHM = "AES";
 
+    private final Timer encryptTimer;
+    private final Timer decryptTimer;
+
+    public EncryptionUtil(MeterRegistry meterRegistry) {
+        this.encryptTimer = Timer.builder("bankcards.crypto")
+                .tag("operation", "encrypt")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.decryptTimer = Timer.builder("bankcards.crypto")
+                .tag("operation", "decrypt")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     private SecretKeySpec getKey() {
         return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
     }
 
     public String encrypt(String data) {
+        CardCryptoEvent event = new CardCryptoEvent();
+        event.begin();
+        try {
+            return encryptTimer.record(() -> doEncrypt(data));
+        } finally {
+            event.finish("encrypt", data.length());
+        }
+    }
+
+    public String decrypt(String encrypted) {
+        CardCryptoEvent event = new CardCryptoEvent();
+        event.begin();
+        try {
+            return decryptTimer.record(() -> doDecrypt(encrypted));
+        } finally {
+            event.finish("decrypt", encrypted.length());
+        }
+    }
+
+    private String doEncrypt(String data) {
         try {
             Cipher cipher = Cipher.getInstance(ALGORITHM);
             cipher.init(Cipher.ENCRYPT_MODE, getKey());
@@ -33,7 +70,7 @@ public class EncryptionUtil {
         }
     }
 
-    public String decrypt(String encrypted) {
+    private String doDecrypt(String encrypted) {
         try {
             Cipher cipher = Cipher.getInstance(ALGORITHM);
             cipher.init(Cipher.DECRYPT_MODE, getKey());
@@ -0,0 +1,40 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.exception.CardVersionMismatchException;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+
+public class EtagGenerator {
+    private static final String ANY = "*";
+
+    private EtagGenerator() {
+    }
+
+    public static String forVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String forSummary(CardVersionSummary summary) {
+        return "\"" + summary.count() + "-" + summary.maxId() + "-" + summary.versionSum() + "-"
+                + summary.holderVersion() + "\"";
+    }
+
+    /**
+     * Extracts the card version from an {@code If-Match} header value.
+     * Returns {@code null} when the header is absent or {@code *}; weak or malformed
+     * tags can never match strongly, so they are rejected as a failed precondition.
+     */
+    public static Long parseVersion(String ifMatch, Long cardId) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new CardVersionMismatchException(cardId);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new CardVersionMismatchException(cardId);
+        }
+    }
+}
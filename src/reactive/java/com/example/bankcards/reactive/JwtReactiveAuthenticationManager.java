@@ -0,0 +1,59 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.security.JwtPrincipal;
+import com.example.bankcards.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@code JwtAuthFilter}. Signature checks are CPU-only and mostly
+ * served by the verified-token cache, so they run inline on the event loop; the token version
+ * lookup is the only I/O and goes through R2DBC.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    private final JwtService jwtService;
+    private final ReactiveTokenVersionCache tokenVersionCache;
+    private final ReactiveRevocationList revocationList;
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String token = (String) authentication.getCredentials();
+        Claims claims;
+        try {
+            claims = jwtService.extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.error(new BadCredentialsException("Invalid token", e));
+        }
+        JwtPrincipal principal = jwtService.extractPrincipal(claims);
+        if (principal == null) {
+            log.debug("Rejecting token without user id claim for '{}'", claims.getSubject());
+            return Mono.error(new BadCredentialsException("Token has no user id"));
+        }
+        if (revocationList.isRevoked(claims.getId())) {
+            log.debug("Rejecting revoked token {} of user ID {}", claims.getId(), principal.id());
+            return Mono.error(new BadCredentialsException("Token has been revoked"));
+        }
+        return tokenVersionCache.isCurrent(principal.id(), jwtService.extractTokenVersion(claims))
+                .flatMap(current -> {
+                    if (!current) {
+                        log.debug("Rejecting outdated token for user ID {}", principal.id());
+                        return Mono.error(new BadCredentialsException("Token is outdated"));
+                    }
+                    return Mono.just(UsernamePasswordAuthenticationToken.authenticated(
+                            principal, null, jwtService.extractAuthorities(claims)));
+                });
+    }
+}
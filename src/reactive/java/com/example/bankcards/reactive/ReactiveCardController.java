@@ -0,0 +1,138 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.logging.LogMarkers;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.security.JwtPrincipal;
+import com.example.bankcards.util.EtagGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking versions of the card read endpoints of {@code CardController}, with the same
+ * paths, parameters, ETags and response shapes. {@link JwtPrincipal} is a {@code Principal},
+ * which WebFlux resolves to the whole {@link Authentication}, so it is unwrapped by hand.
+ */
+@RestController
+@RequestMapping("/api/cards")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCardController {
+    private final ReactiveCardRepository cardRepository;
+    private final CardMapper cardMapper;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/{id}")
+    public Mono<ResponseEntity<CardDto>> getById(@PathVariable Long id, Authentication authentication,
+                                                 ServerWebExchange exchange) {
+        log.info(LogMarkers.SAMPLED, "User '{}' requested card ID: {}", authentication.getName(), id);
+        return cardRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new CardNotFoundException(id)))
+                .flatMap(version -> {
+                    String etag = EtagGenerator.forVersion(version);
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+                    }
+                    return cardRepository.findById(id)
+                            .switchIfEmpty(Mono.error(() -> new CardNotFoundException(id)))
+                            .map(card -> {
+                                CardDto dto = cardMapper.mapToDto(card);
+                                return ResponseEntity.ok().eTag(EtagGenerator.forVersion(dto.getVersion())).body(dto);
+                            });
+                });
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/my")
+    public Mono<ResponseEntity<Page<CardDto>>> getMyCards(
+            Authentication authentication,
+            ServerWebExchange exchange,
+            @RequestParam(required = false) CardStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "3") int size,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived
+    ) {
+        JwtPrincipal principal = (JwtPrincipal) authentication.getPrincipal();
+        log.info(LogMarkers.SAMPLED, "User '{}' requested own cards", principal.username());
+        Set<CardField> selectedFields = CardField.parse(fields);
+        PageRequest pageable = PageRequest.of(page, size);
+        return cardRepository.summarizeVersionsByHolderId(principal.id())
+                .map(EtagGenerator::forSummary)
+                .flatMap(etag -> {
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+                    }
+                    Mono<Page<CardDto>> live = cardRepository
+                            .findByHolderId(principal.id(), status, pageable.getOffset(), size)
+                            .map(card -> cardMapper.mapToDto(card, selectedFields))
+                            .collectList()
+                            .zipWith(cardRepository.countByHolderId(principal.id(), status))
+                            .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+                    return (includeArchived ? live.flatMap(cards -> withArchived(principal.id(), status, cards,
+                            selectedFields)) : live)
+                            .map(cards -> ResponseEntity.ok().eTag(etag).body(cards));
+                });
+    }
+
+    /**
+     * Appends the holder's archived cards after the live ones, like
+     * {@code CardService.getCardsWithArchivedByHolderId}.
+     */
+    private Mono<Page<CardDto>> withArchived(Long holderId, CardStatus status, Page<CardDto> live,
+                                             Set<CardField> fields) {
+        return cardRepository.countArchivedByHolderId(holderId, status).flatMap(archived -> {
+            long total = live.getTotalElements() + archived;
+            int remaining = live.getSize() - live.getNumberOfElements();
+            if (archived == 0 || remaining == 0) {
+                return Mono.just(new PageImpl<>(live.getContent(), live.getPageable(), total));
+            }
+            long offset = Math.max(0, live.getPageable().getOffset() - live.getTotalElements());
+            return cardRepository.findArchivedByHolderId(holderId, status, offset, remaining)
+                    .map(card -> cardMapper.mapToDto(card, fields))
+                    .collectList()
+                    .map(archivedCards -> {
+                        List<CardDto> content = new ArrayList<>(live.getContent());
+                        content.addAll(archivedCards);
+                        return new PageImpl<>(content, live.getPageable(), total);
+                    });
+        });
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/balance")
+    public Mono<ResponseEntity<Map<String, Object>>> getBalance(Authentication authentication,
+                                                                ServerWebExchange exchange) {
+        JwtPrincipal principal = (JwtPrincipal) authentication.getPrincipal();
+        log.info(LogMarkers.SAMPLED, "User '{}' requested balance", principal.username());
+        return cardRepository.summarizeVersionsByHolderId(principal.id())
+                .map(EtagGenerator::forSummary)
+                .flatMap(etag -> {
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+                    }
+                    return cardRepository.sumBalanceByHolderId(principal.id())
+                            .map(balance -> ResponseEntity.ok().eTag(etag).body(Map.of("balance", balance)));
+                });
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The card queries behind the read endpoints, written against {@link DatabaseClient}. Rows are
+ * mapped onto detached {@link Card} entities so that {@code CardMapper} can be reused as is; archived
+ * cards have the same columns and are mapped the same way.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCardRepository {
+    private static final String SELECT_CARDS = "select c.id, c.card_number, c.expiration_date, c.status, " +
+            "c.balance, c.version, u.id as holder_id, u.username " +
+            "from cards c join users u on u.id = c.card_holder_id where c.deleted_at is null ";
+    private static final String SELECT_ARCHIVED_CARDS = "select a.id, a.card_number, a.expiration_date, a.status, " +
+            "a.balance, a.version, u.id as holder_id, u.username " +
+            "from cards_archive a join users u on u.id = a.card_holder_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Card> findById(Long id) {
+        return databaseClient.sql(SELECT_CARDS + "and c.id = :id")
+                .bind("id", id)
+                .map(ReactiveCardRepository::toCard)
+                .one();
+    }
+
+    public Mono<Long> findVersionById(Long id) {
+        return databaseClient.sql("select version from cards where id = :id and deleted_at is null")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    public Flux<Card> findByHolderId(Long holderId, CardStatus status, long offset, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SELECT_CARDS +
+                        "and c.card_holder_id = :holderId" + (status != null ? " and c.status = :status" : "") +
+                        " order by c.id limit :limit offset :offset")
+                .bind("holderId", holderId)
+                .bind("limit", limit)
+                .bind("offset", offset);
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map(ReactiveCardRepository::toCard).all();
+    }
+
+    public Mono<Long> countByHolderId(Long holderId, CardStatus status) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("select count(*) as total from cards " +
+                        "where card_holder_id = :holderId and deleted_at is null" + (status != null ? " and status = :status" : ""))
+                .bind("holderId", holderId);
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map(row -> row.get("total", Long.class)).one();
+    }
+
+    /**
+     * Archived cards of one holder in id order, as {@code ArchivedCardRepository.findByHolderId}.
+     */
+    public Flux<Card> findArchivedByHolderId(Long holderId, CardStatus status, long offset, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SELECT_ARCHIVED_CARDS +
+                        "where a.card_holder_id = :holderId" + (status != null ? " and a.status = :status" : "") +
+                        " order by a.id limit :limit offset :offset")
+                .bind("holderId", holderId)
+                .bind("limit", limit)
+                .bind("offset", offset);
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map(ReactiveCardRepository::toCard).all();
+    }
+
+    public Mono<Long> countArchivedByHolderId(Long holderId, CardStatus status) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("select count(*) as total from cards_archive " +
+                        "where card_holder_id = :holderId" + (status != null ? " and status = :status" : ""))
+                .bind("holderId", holderId);
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map(row -> row.get("total", Long.class)).one();
+    }
+
+    /**
+     * Includes archived cards, as {@code CardRepository.sumBalanceByHolderId}.
+     */
+    public Mono<BigDecimal> sumBalanceByHolderId(Long holderId) {
+        return databaseClient.sql("select coalesce(sum(balance), 0) " +
+                        "+ (select coalesce(sum(balance), 0) from cards_archive where card_holder_id = :holderId) " +
+                        "as total from cards where card_holder_id = :holderId and deleted_at is null")
+                .bind("holderId", holderId)
+                .map(row -> row.get("total", BigDecimal.class))
+                .one();
+    }
+
+    public Mono<CardVersionSummary> summarizeVersionsByHolderId(Long holderId) {
+        return databaseClient.sql("select count(*) as total, coalesce(max(id), 0) as max_id, " +
+                        "cast(coalesce(sum(version), 0) as bigint) as version_sum, " +
+                        "(select token_version from users where id = :holderId) as holder_version from cards " +
+                        "where card_holder_id = :holderId and deleted_at is null")
+                .bind("holderId", holderId)
+                .map(row -> new CardVersionSummary(
+                        row.get("total", Long.class),
+                        row.get("max_id", Long.class),
+                        row.get("version_sum", Long.class),
+                        row.get("holder_version", Integer.class)))
+                .one();
+    }
+
+    private static Card toCard(Readable row) {
+        User holder = new User();
+        holder.setId(row.get("holder_id", Long.class));
+        holder.setUsername(row.get("username", String.class));
+
+        Card card = new Card();
+        card.setId(row.get("id", Long.class));
+        card.setNumber(row.get("card_number", String.class));
+        card.setHolder(holder);
+        card.setExpirationDate(row.get("expiration_date", LocalDate.class));
+        card.setStatus(CardStatus.valueOf(row.get("status", String.class)));
+        card.setBalance(row.get("balance", BigDecimal.class));
+        card.setVersion(row.get("version", Long.class));
+        return card;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.exception.GlobalExceptionHandler;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.security.JwtService;
+import com.example.bankcards.security.VerifiedTokenCache;
+import com.example.bankcards.serializer.BankCardsJacksonModule;
+import com.example.bankcards.util.EncryptionUtil;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Read-only card API on WebFlux and R2DBC, built with {@code -Preactive} and deployed next to
+ * the main application. It serves {@code /api/cards/my}, {@code /api/cards/balance} and
+ * {@code /api/cards/{id}} from a few Netty event-loop threads, reusing JWT verification,
+ * {@link CardMapper} and the JSON serializers of the main application.
+ * <p>
+ * It only runs as a reactive web application, so the servlet application ignores this package
+ * when scanning, and it reads {@code reactive.yml} instead of {@code application.yml}.
+ */
+@SpringBootApplication(
+        scanBasePackages = "com.example.bankcards.reactive",
+        exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+                LiquibaseAutoConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import({JwtConfig.class, VerifiedTokenCache.class, JwtService.class, EncryptionUtil.class, CardMapper.class,
+        BankCardsJacksonModule.class, GlobalExceptionHandler.class})
+public class ReactiveReadApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=reactive")
+                .run(args);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.config.JwtConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Revoked access token ids, reloaded from {@code revoked_access_tokens} every
+ * {@code jwt.revocation.refresh-ms}. Revocations are rare and short-lived, so the whole
+ * unexpired set is kept and swapped in one piece.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRevocationList {
+    private final DatabaseClient databaseClient;
+    private final JwtConfig jwtConfig;
+
+    private volatile Set<String> revoked = Set.of();
+    private Disposable refresher;
+
+    @PostConstruct
+    public void init() {
+        load().block(Duration.ofSeconds(30));
+        Duration period = Duration.ofMillis(jwtConfig.getRevocation().getRefreshMs());
+        refresher = Flux.interval(period, period)
+                .concatMap(tick -> load().onErrorResume(e -> {
+                    log.warn("Failed to refresh revoked access tokens: {}", e.getMessage());
+                    return Mono.empty();
+                }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.contains(jti);
+    }
+
+    private Mono<Void> load() {
+        return databaseClient.sql("select jti from revoked_access_tokens where expires_at > :now")
+                .bind("now", OffsetDateTime.now())
+                .map(row -> row.get("jti", String.class))
+                .all()
+                .collect(Collectors.toUnmodifiableSet())
+                .doOnNext(loaded -> {
+                    revoked = loaded;
+                    log.debug("Loaded {} revoked access tokens", loaded.size());
+                })
+                .then();
+    }
+}
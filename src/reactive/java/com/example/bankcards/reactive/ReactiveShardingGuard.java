@@ -0,0 +1,22 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+/**
+ * The reactive read service queries a single database and does not route by shard, so it would answer
+ * with the cards of shard 0 only. It refuses to start where the main application shards its data.
+ */
+@Component
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShardingGuard implements InitializingBean {
+
+    @Override
+    public void afterPropertiesSet() {
+        throw new IllegalStateException("The reactive read service does not support sharding; "
+                + "serve the card reads from the main application while SHARDING_ENABLED=true");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bankcards.reactive;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.security.SegmentedLruMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same caching rules as {@code TokenVersionCache}, with the miss path loaded through R2DBC.
+ * This node never bumps versions itself, so entries only expire or make room for others; it runs
+ * no scheduler, so expired entries stay until they are looked up or are the least recently used.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTokenVersionCache {
+    private final DatabaseClient databaseClient;
+    private final JwtConfig jwtConfig;
+
+    private final SegmentedLruMap<Long, CachedVersion> versions;
+
+    public ReactiveTokenVersionCache(DatabaseClient databaseClient, JwtConfig jwtConfig) {
+        this.databaseClient = databaseClient;
+        this.jwtConfig = jwtConfig;
+        this.versions = new SegmentedLruMap<>(jwtConfig.getTokenVersionCacheSize());
+    }
+
+    public Mono<Boolean> isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(userId);
+        if (cached != null && cached.expiresAt() >= now) {
+            return Mono.just(cached.version() == tokenVersion);
+        }
+        return databaseClient.sql("select token_version from users where id = :id and deleted_at is null")
+                .bind("id", userId)
+                .map(row -> row.get("token_version", Integer.class))
+                .one()
+                .map(version -> {
+                    versions.put(userId, new CachedVersion(version, now + jwtConfig.getTokenVersionTtlMs()));
+                    return version == tokenVersion;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    versions.remove(userId);
+                    return false;
+                }));
+    }
+
+    private record CachedVersion(int version, long expiresAt) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards;
+
+import com.example.bankcards.metrics.QueryStats;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.Map;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), QueryStats.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryStats stats = context.getStore(NAMESPACE).remove(context.getUniqueId(), QueryStats.class);
+        stats.stop();
+
+        int budget = context.getRequiredTestMethod().getAnnotation(MaxQueries.class).value();
+        if (stats.getStatements() > budget) {
+            Map.Entry<String, Integer> repeated = stats.mostRepeatedStatement();
+            throw new AssertionFailedError("Expected at most " + budget + " SQL statements but " +
+                    stats.getStatements() + " were executed; most repeated (" + repeated.getValue() + "x): " +
+                    repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Users and cards written straight to the in-memory database, for tests of code that bypasses the entities.
+ * Every user's name starts with {@code prefix}, and {@link #deleteAll()} removes those users with their roles
+ * and live and archived cards.
+ */
+public class TestRows {
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefix;
+
+    public TestRows(JdbcTemplate jdbcTemplate, String prefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Inserts the user {@code <prefix><name>} with the role {@code USER}.
+     */
+    public long insertUser(String name, Instant deletedAt) {
+        String username = prefix + name;
+        jdbcTemplate.update("insert into users (username, password, token_version, deleted_at) "
+                + "values (?, 'x', 0, ?)", username, timestamp(deletedAt));
+        long id = jdbcTemplate.queryForObject("select id from users where username = ?", Long.class, username);
+        jdbcTemplate.update("insert into user_roles (user_id, role_id) "
+                + "select ?, id from roles where name = 'USER'", id);
+        return id;
+    }
+
+    /**
+     * Inserts a card whose status changed now unless {@code statusChangedAt} is given.
+     */
+    public long insertCard(long holderId, String status, BigDecimal balance, Instant statusChangedAt,
+                           Instant deletedAt) {
+        String number = prefix + holderId + "-" + System.nanoTime();
+        jdbcTemplate.update("insert into cards (card_number, card_holder_id, expiration_date, status, balance, "
+                        + "version, status_changed_at, deleted_at) "
+                        + "values (?, ?, current_date, ?, ?, 0, coalesce(?, current_timestamp), ?)",
+                number, holderId, status, balance, timestamp(statusChangedAt), timestamp(deletedAt));
+        return jdbcTemplate.queryForObject("select id from cards where card_number = ?", Long.class, number);
+    }
+
+    public void deleteAll() {
+        String holders = "(select id from users where username like ?)";
+        String pattern = prefix + "%";
+        jdbcTemplate.update("delete from cards_archive where card_holder_id in " + holders, pattern);
+        jdbcTemplate.update("delete from cards where card_holder_id in " + holders, pattern);
+        jdbcTemplate.update("delete from user_roles where user_id in " + holders, pattern);
+        jdbcTemplate.update("delete from users where username like ?", pattern);
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards;
+
+import org.springframework.security.test.context.support.WithSecurityContext;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Populates the security context with a {@link com.example.bankcards.security.JwtPrincipal},
+ * the same principal {@code JwtAuthFilter} builds from a verified token.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@WithSecurityContext(factory = WithMockJwtUserSecurityContextFactory.class)
+public @interface WithMockJwtUser {
+    long id() default 2L;
+
+    String username() default "user";
+
+    String[] roles() default {"USER"};
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards;
+
+import com.example.bankcards.security.JwtPrincipal;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithSecurityContextFactory;
+
+import java.util.Arrays;
+
+public class WithMockJwtUserSecurityContextFactory implements WithSecurityContextFactory<WithMockJwtUser> {
+    @Override
+    public SecurityContext createSecurityContext(WithMockJwtUser annotation) {
+        JwtPrincipal principal = new JwtPrincipal(annotation.id(), annotation.username());
+        var authorities = Arrays.stream(annotation.roles())
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, authorities));
+        return context;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.serializer.BankCardsJacksonModule;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective bean serialization with {@link BankCardsJacksonModule}.
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=JsonSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"10", "100", "10000"})
+    private int size;
+
+    private ObjectMapper reflective;
+    private ObjectMapper handWritten;
+    private List<CardDto> cards;
+    private Page<CardDto> page;
+
+    @Setup
+    public void setUp() {
+        reflective = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        handWritten = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new BankCardsJacksonModule())
+                .build();
+        cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CardDto card = new CardDto();
+            card.setId((long) i);
+            card.setNumber("**** **** **** " + (1000 + i % 9000));
+            card.setHolderName("user" + i % 100);
+            card.setExpirationDate(LocalDate.of(2030, 1 + i % 12, 1 + i % 28));
+            card.setStatus(CardStatus.values()[i % CardStatus.values().length]);
+            card.setBalance(BigDecimal.valueOf(i * 1_000L + 51, 2));
+            cards.add(card);
+        }
+        page = new PageImpl<>(cards, PageRequest.of(0, size), size * 3L);
+    }
+
+    @Benchmark
+    public byte[] listReflective() throws JsonProcessingException {
+        return reflective.writeValueAsBytes(cards);
+    }
+
+    @Benchmark
+    public byte[] listHandWritten() throws JsonProcessingException {
+        return handWritten.writeValueAsBytes(cards);
+    }
+
+    @Benchmark
+    public byte[] pageReflective() throws JsonProcessingException {
+        return reflective.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] pageHandWritten() throws JsonProcessingException {
+        return handWritten.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.RateLimitConfig;
+import com.example.bankcards.security.RateLimitFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of {@link RateLimitFilter} on the allowed path, with limits high enough
+ * that no request is rejected. {@code disabled} measures the same mock request handling with
+ * limiting switched off; the difference is the cost of limiting. Run with {@code mvn -Pbenchmark test -Dbenchmark=RateLimitFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+    @Param({"1", "1000"})
+    private int clients;
+
+    private RateLimitFilter filter;
+    private RateLimitFilter disabledFilter;
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    @Setup
+    public void setUp() {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setRead(new RateLimitConfig.Limit(4_000, 1_000_000));
+        filter = new RateLimitFilter(config, null);
+        RateLimitConfig disabledConfig = new RateLimitConfig();
+        disabledConfig.setEnabled(false);
+        disabledFilter = new RateLimitFilter(disabledConfig, null);
+    }
+
+    /**
+     * Mock requests are not thread-safe, so each benchmark thread gets its own copies.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int next;
+        MockHttpServletRequest[] requests;
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        @Setup
+        public void setUp(RateLimitFilterBenchmark benchmark) {
+            requests = new MockHttpServletRequest[benchmark.clients];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = new MockHttpServletRequest("GET", "/api/cards/my");
+                requests[i].setRemoteAddr("10.0." + i / 256 + "." + i % 256);
+            }
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse enabled(ThreadState state) throws Exception {
+        return run(filter, state);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse disabled(ThreadState state) throws Exception {
+        return run(disabledFilter, state);
+    }
+
+    private MockHttpServletResponse run(RateLimitFilter target, ThreadState state) throws Exception {
+        target.doFilter(state.requests[state.next++ % clients], state.response, chain);
+        return state.response;
+    }
+}
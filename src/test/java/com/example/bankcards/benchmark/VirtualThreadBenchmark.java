@@ -0,0 +1,104 @@
+package com.example.bankcards.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serve a burst of concurrent blocking requests on Tomcat-sized platform threads versus
+ * one virtual thread per request, for several Hikari pool sizes. Each request waits on other I/O,
+ * then borrows a connection and holds it for a simulated query round trip. The virtual variant
+ * needs Java 21: run with {@code mvn -Pbenchmark,java21 test -Dbenchmark=VirtualThreadBenchmark}
+ * on a Java 21 JDK, or add {@code -p threads=platform} on older ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"10", "50", "200"})
+    private int poolSize;
+
+    @Param({"1000"})
+    private int requests;
+
+    @Param({"2"})
+    private long ioMillis;
+
+    @Param({"2"})
+    private long queryMillis;
+
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(60_000);
+        dataSource = new HikariDataSource(config);
+        executor = threads.equals("virtual") ? newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(this::handleRequest));
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+
+    private int handleRequest() throws Exception {
+        Thread.sleep(ioMillis);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            Thread.sleep(queryMillis);
+            return resultSet.getInt(1);
+        }
+    }
+
+    /**
+     * Looked up reflectively so the benchmarks still compile for Java 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads require Java 21, running on "
+                    + Runtime.version(), e);
+        }
+    }
+}
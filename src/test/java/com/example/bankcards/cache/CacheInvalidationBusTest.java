@@ -0,0 +1,115 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.cache.CacheInvalidationEvent.Type;
+import com.example.bankcards.config.CacheInvalidationConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationBusTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CacheInvalidationConfig config = new CacheInvalidationConfig();
+    private SimpleMeterRegistry meterRegistry;
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bus = new CacheInvalidationBus(config, jdbcTemplate, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(bus);
+    }
+
+    @Test
+    @DisplayName("Invalidations of one transaction are sent as one notification before it commits")
+    void testPublishInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.publish(Type.USER, 1L);
+        bus.publish(Type.USER_CARDS, 1L);
+        bus.publish(Type.USER, 2L);
+        bus.publish(Type.USER, 1L);
+        verifyNoInteractions(jdbcTemplate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).beforeCommit(false);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(jdbcTemplate, times(1)).queryForList("select pg_notify(?, ?)",
+                "bankcards_cache_invalidation", bus.getNode() + " u:1,2 c:1");
+        assertNull(TransactionSynchronizationManager.getResource(bus));
+        assertEquals(1, meterRegistry.get(CacheInvalidationBus.MESSAGES_COUNTER_NAME)
+                .tag("direction", "sent").counter().count());
+    }
+
+    @Test
+    @DisplayName("Nothing is sent for a transaction that rolls back")
+    void testPublishIfRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bus.publish(Type.USER, 1L);
+        TransactionSynchronizationManager.getSynchronizations().get(0)
+                .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertNull(TransactionSynchronizationManager.getResource(bus));
+    }
+
+    @Test
+    @DisplayName("Invalidation outside a transaction is sent right away, and not at all when disabled")
+    void testPublishWithoutTransaction() {
+        bus.publish(Type.USER_CARDS, 5L);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq("bankcards_cache_invalidation"),
+                eq(bus.getNode() + " c:5"));
+
+        config.setEnabled(false);
+        bus.publish(Type.USER_CARDS, 6L);
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Many ids are split over payloads that fit a notification and parse back")
+    void testEncodeAndParse() {
+        Set<Long> users = LongStream.rangeClosed(1_000_000, 1_002_000).boxed()
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Type, Set<Long>> ids = Map.of(Type.USER, users);
+
+        List<String> payloads = InvalidationMessage.encode("node", ids);
+
+        assertTrue(payloads.size() > 1);
+        Set<Long> parsed = new LinkedHashSet<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() <= InvalidationMessage.MAX_PAYLOAD);
+            InvalidationMessage message = InvalidationMessage.parse(payload);
+            assertEquals("node", message.node());
+            parsed.addAll(message.ids().get(Type.USER));
+        }
+        assertEquals(users, parsed);
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.parse("node x:1"));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.parse("node u1"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.cache.CacheInvalidationEvent.Type;
+import com.example.bankcards.config.CacheInvalidationConfig;
+import com.example.bankcards.config.ShardingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Covers the handling of received payloads; the connection itself needs PostgreSQL.
+ */
+public class CacheInvalidationListenerTest {
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(bus.getNode()).thenReturn("self");
+        listener = new CacheInvalidationListener(new CacheInvalidationConfig(), new DataSourceProperties(),
+                new ShardingConfig(), bus,
+                eventPublisher, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Invalidations from other nodes are published locally per type")
+    void testDispatch() {
+        listener.dispatch("other u:1,2 c:3");
+
+        verify(eventPublisher).publishEvent(new CacheInvalidationEvent(Type.USER, Set.of(1L, 2L)));
+        verify(eventPublisher).publishEvent(new CacheInvalidationEvent(Type.USER_CARDS, Set.of(3L)));
+    }
+
+    @Test
+    @DisplayName("Own invalidations are skipped since they were already applied locally")
+    void testDispatchIfOwn() {
+        listener.dispatch("self u:1");
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Malformed payload clears every cache")
+    void testDispatchIfMalformed() {
+        listener.dispatch("other u:x");
+
+        verify(eventPublisher).publishEvent(CacheInvalidationEvent.all(Type.USER));
+        verify(eventPublisher).publishEvent(CacheInvalidationEvent.all(Type.USER_CARDS));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.metrics.JdbcTimingSessionListener;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeHintsConfigTest {
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHintsConfig.BankCardsRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("jjwt implementation classes are registered for reflection")
+    void testJjwtHints() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtParserBuilder")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.jackson.io.JacksonDeserializer")).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Deserializer").test(hints));
+    }
+
+    @Test
+    @DisplayName("Hibernate projections, listeners and migrations are registered")
+    void testHibernateHints() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(CardVersionSummary.class.getDeclaredConstructor(Long.class, Long.class, Long.class,
+                        Integer.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(JdbcTimingSessionListener.class.getDeclaredConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("db/migration/db.changelog-master.yml").test(hints));
+    }
+
+    @Test
+    @DisplayName("AES cipher used by EncryptionUtil is registered")
+    void testCryptoHints() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.sun.crypto.provider.AESCipher$General")).test(hints));
+    }
+}
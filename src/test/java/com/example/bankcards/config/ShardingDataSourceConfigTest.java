@@ -0,0 +1,71 @@
+package com.example.bankcards.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ShardingDataSourceConfigTest {
+
+    @Test
+    @DisplayName("A shard holding users or cards of another shard fails the startup check")
+    void testCheckShardIfIdsMisplaced() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sharding-check;DB_CLOSE_DELAY=-1");
+        JdbcTemplate shard = new JdbcTemplate(dataSource);
+        shard.execute("create table users (id bigint primary key)");
+        shard.execute("create table cards (id bigint primary key, card_holder_id bigint)");
+        shard.update("insert into users (id) values (1), (4)");
+        shard.update("insert into cards (id, card_holder_id) values (7, 4)");
+
+        ShardingDataSourceConfig.checkShard(shard, false, 1, 3);
+
+        shard.update("insert into cards (id, card_holder_id) values (8, 4)");
+        assertThrows(IllegalStateException.class, () -> ShardingDataSourceConfig.checkShard(shard, false, 1, 3));
+        assertThrows(IllegalStateException.class, () -> ShardingDataSourceConfig.checkShard(shard, false, 0, 3));
+    }
+
+    @Test
+    @DisplayName("A PostgreSQL shard whose id sequences count from 1 by 1 fails the startup check")
+    void testCheckShardIfSequencesNotSplit() {
+        JdbcTemplate shard = mock(JdbcTemplate.class);
+        when(shard.queryForList(anyString(), eq("users")))
+                .thenReturn(List.of(Map.of("increment_by", 3L, "start_value", 4L)));
+        when(shard.queryForList(anyString(), eq("cards")))
+                .thenReturn(List.of(Map.of("increment_by", 1L, "start_value", 1L)));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ShardingDataSourceConfig.checkShard(shard, true, 1, 3));
+        assertTrue(e.getMessage().contains("cards ids starting at 1 in steps of 1"));
+
+        when(shard.queryForList(anyString(), eq("cards")))
+                .thenReturn(List.of(Map.of("increment_by", 3L, "start_value", 10L)));
+        ShardingDataSourceConfig.checkShard(shard, true, 1, 3);
+    }
+
+    @Test
+    @DisplayName("A PostgreSQL shard whose cards were partitioned passes the startup check")
+    void testCheckShardIfCardsPartitioned() {
+        JdbcTemplate shard = mock(JdbcTemplate.class);
+        when(shard.queryForList(anyString(), eq("users")))
+                .thenReturn(List.of(Map.of("increment_by", 3L, "start_value", 2L)));
+        // V10 continues the old sequence, last at 30000002, with its step
+        when(shard.queryForList(anyString(), eq("cards")))
+                .thenReturn(List.of(Map.of("increment_by", 3L, "start_value", 30000005L)));
+        ShardingDataSourceConfig.checkShard(shard, true, 2, 3);
+
+        // a new sequence counting on from the highest id by 1
+        when(shard.queryForList(anyString(), eq("cards")))
+                .thenReturn(List.of(Map.of("increment_by", 1L, "start_value", 30000003L)));
+        assertThrows(IllegalStateException.class, () -> ShardingDataSourceConfig.checkShard(shard, true, 2, 3));
+    }
+}
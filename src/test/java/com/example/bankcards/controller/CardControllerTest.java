@@ -1,14 +1,25 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.TestSecurityConfig;
+import com.example.bankcards.WithMockJwtUser;
 import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.config.RateLimitConfig;
+import com.example.bankcards.dto.BulkDeleteResult;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.dto.CardStatusChangeResult;
 import com.example.bankcards.dto.TransferDto;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.exception.*;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import com.example.bankcards.security.AccessTokenRevocationList;
 import com.example.bankcards.security.JwtService;
+import com.example.bankcards.security.TokenVersionCache;
+import com.example.bankcards.service.CardBulkService;
+import com.example.bankcards.service.CardPageCache;
 import com.example.bankcards.service.CardService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -19,13 +30,18 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.Supplier;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,10 +56,27 @@ public class CardControllerTest {
     private JwtService jwtService;
     @MockBean
     private JwtConfig jwtConfig;
+    @MockBean
+    private TokenVersionCache tokenVersionCache;
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+    @MockBean
+    private RateLimitConfig rateLimitConfig;
     @Autowired
     private ObjectMapper objectMapper;
     @MockBean
     private CardService cardService;
+    @MockBean
+    private CardBulkService cardBulkService;
+    @MockBean
+    private CardPageCache cardPageCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(cardPageCache.get(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<Page<CardDto>>>getArgument(2).get());
+    }
 
     @Test
     @DisplayName("GET /api/cards/{id} - returns 200 OK with card")
@@ -55,11 +88,14 @@ public class CardControllerTest {
         card.setId(cardId);
         card.setNumber("1234567890123456");
         card.setBalance(BigDecimal.valueOf(10_000));
+        card.setVersion(3L);
 
+        Mockito.when(cardService.getVersionById(cardId)).thenReturn(3L);
         Mockito.when(cardService.getById(cardId)).thenReturn(card);
         mockMvc.perform(get("/api/cards/{id}", cardId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
                 .andExpect(jsonPath("$.id").value(card.getId()))
                 .andExpect(jsonPath("$.number").value(card.getNumber()))
                 .andExpect(jsonPath("$.balance").value(card.getBalance()));
@@ -71,7 +107,7 @@ public class CardControllerTest {
     void getCardById_ReturnsNotFound_WhenMissing() throws Exception {
         Long cardId = 999L;
 
-        Mockito.when(cardService.getById(cardId)).thenThrow(new CardNotFoundException(cardId));
+        Mockito.when(cardService.getVersionById(cardId)).thenThrow(new CardNotFoundException(cardId));
         mockMvc.perform(get("/api/cards/{id}", cardId))
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -79,9 +115,24 @@ public class CardControllerTest {
                         .value("Card with ID: " + cardId + " not found"));
     }
 
+    @Test
+    @DisplayName("GET /api/cards/{id} - returns 304 Not Modified when ETag matches")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getCardById_ReturnsNotModified_WhenEtagMatches() throws Exception {
+        Long cardId = 1L;
+
+        Mockito.when(cardService.getVersionById(cardId)).thenReturn(3L);
+        mockMvc.perform(get("/api/cards/{id}", cardId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+        verify(cardService, never()).getById(cardId);
+    }
+
     @Test
     @DisplayName("GET /api/cards/{id} - returns 403 Forbidden for USER role")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void getCardById_ReturnsForbidden_WhenRoleNotAdmin() throws Exception {
         mockMvc.perform(get("/api/cards/{id}", 1L))
                 .andExpect(status().isForbidden())
@@ -100,7 +151,7 @@ public class CardControllerTest {
         card2.setId(2L);
         card2.setNumber("**** **** **** 3201");
 
-        Mockito.when(cardService.getAll()).thenReturn(List.of(card1, card2));
+        Mockito.when(cardService.getAll(CardField.ALL)).thenReturn(List.of(card1, card2));
         mockMvc.perform(get("/api/cards"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -111,9 +162,41 @@ public class CardControllerTest {
                 .andExpect(jsonPath("$[1].number").value(card2.getNumber()));
     }
 
+    @Test
+    @DisplayName("GET /api/cards?fields=id,status,balance - returns only requested fields")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getAllCards_ReturnsRequestedFields_WhenFieldsProvided() throws Exception {
+        EnumSet<CardField> fields = EnumSet.of(CardField.ID, CardField.STATUS, CardField.BALANCE);
+        CardDto card = new CardDto();
+        card.setId(1L);
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(BigDecimal.valueOf(500));
+        card.setIncludedFields(fields);
+
+        Mockito.when(cardService.getAll(fields)).thenReturn(List.of(card));
+        mockMvc.perform(get("/api/cards").param("fields", "id,status,balance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].status").value("ACTIVE"))
+                .andExpect(jsonPath("$[0].balance").value(500))
+                .andExpect(jsonPath("$[0].number").doesNotExist())
+                .andExpect(jsonPath("$[0].holderName").doesNotExist())
+                .andExpect(jsonPath("$[0].expirationDate").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/cards?fields=unknown - returns 400 Bad Request")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getAllCards_ReturnsBadRequest_WhenFieldUnknown() throws Exception {
+        mockMvc.perform(get("/api/cards").param("fields", "id,cvv"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field 'cvv'"));
+        verifyNoInteractions(cardService);
+    }
+
     @Test
     @DisplayName("GET /api/cards - returns 403 Forbidden for USER role")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void getAllCards_ReturnsForbidden_WhenRoleNotAdmin() throws Exception {
         mockMvc.perform(get("/api/cards"))
                 .andExpect(status().isForbidden())
@@ -154,7 +237,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("POST /api/cards/user/{id} - returns 403 Forbidden for user without ADMIN role")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void createCard_ReturnsForbidden_WhenRoleUser() throws Exception {
         mockMvc.perform(post("/api/cards/user/{id}", 1L))
                 .andExpect(status().isForbidden());
@@ -169,13 +252,60 @@ public class CardControllerTest {
         CardDto blockedCard = new CardDto();
         blockedCard.setId(cardId);
         blockedCard.setStatus(CardStatus.BLOCKED);
+        blockedCard.setVersion(1L);
 
-        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.BLOCKED)).thenReturn(blockedCard);
+        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.BLOCKED, null)).thenReturn(blockedCard);
         mockMvc.perform(patch("/api/cards/{id}/block", cardId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(blockedCard.getId()))
-                .andExpect(jsonPath("$.status").value("BLOCKED"));
+                .andExpect(jsonPath("$.status").value("BLOCKED"))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/cards/{id}/block - passes If-Match version to service")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void blockCard_PassesExpectedVersion_WhenIfMatchProvided() throws Exception {
+        Long cardId = 1L;
+
+        CardDto blockedCard = new CardDto();
+        blockedCard.setId(cardId);
+        blockedCard.setStatus(CardStatus.BLOCKED);
+        blockedCard.setVersion(5L);
+
+        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.BLOCKED, 4L)).thenReturn(blockedCard);
+        mockMvc.perform(patch("/api/cards/{id}/block", cardId)
+                        .header(HttpHeaders.IF_MATCH, "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/cards/{id}/block - returns 412 Precondition Failed when version is stale")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void blockCard_ReturnsPreconditionFailed_WhenVersionStale() throws Exception {
+        Long cardId = 1L;
+
+        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.BLOCKED, 2L))
+                .thenThrow(new CardVersionMismatchException(cardId));
+        mockMvc.perform(patch("/api/cards/{id}/block", cardId)
+                        .header(HttpHeaders.IF_MATCH, "\"2\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message")
+                        .value("Card with ID: " + cardId + " has been modified, reload it and retry"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/cards/{id}/block - returns 412 Precondition Failed for weak If-Match")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void blockCard_ReturnsPreconditionFailed_WhenIfMatchWeak() throws Exception {
+        mockMvc.perform(patch("/api/cards/{id}/block", 1L)
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\""))
+                .andExpect(status().isPreconditionFailed());
+        verifyNoInteractions(cardService);
     }
 
     @Test
@@ -184,7 +314,7 @@ public class CardControllerTest {
     void blockCard_ReturnsNotFound_WhenCardMissing() throws Exception {
         Long cardId = 999L;
 
-        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.BLOCKED))
+        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.BLOCKED, null))
                 .thenThrow(new CardNotFoundException(cardId));
         mockMvc.perform(patch("/api/cards/{id}/block", cardId))
                 .andExpect(status().isNotFound())
@@ -195,7 +325,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("PATCH /api/cards/{id}/block - returns 403 Forbidden for user without ADMIN role")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void blockCard_ReturnsForbidden_WhenRoleUser() throws Exception {
         mockMvc.perform(patch("/api/cards/{id}/block", 1L))
                 .andExpect(status().isForbidden());
@@ -210,8 +340,9 @@ public class CardControllerTest {
         CardDto blockedCard = new CardDto();
         blockedCard.setId(cardId);
         blockedCard.setStatus(CardStatus.ACTIVE);
+        blockedCard.setVersion(1L);
 
-        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.ACTIVE)).thenReturn(blockedCard);
+        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.ACTIVE, null)).thenReturn(blockedCard);
         mockMvc.perform(patch("/api/cards/{id}/activate", cardId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -225,7 +356,7 @@ public class CardControllerTest {
     void activateCard_ReturnsNotFound_WhenCardMissing() throws Exception {
         Long cardId = 999L;
 
-        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.ACTIVE))
+        Mockito.when(cardService.changeCardStatus(cardId, CardStatus.ACTIVE, null))
                 .thenThrow(new CardNotFoundException(cardId));
         mockMvc.perform(patch("/api/cards/{id}/activate", cardId))
                 .andExpect(status().isNotFound())
@@ -236,7 +367,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("PATCH /api/cards/{id}/activate - returns 403 Forbidden for user without ADMIN role")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void activateCard_ReturnsForbidden_WhenRoleUser() throws Exception {
         mockMvc.perform(patch("/api/cards/{id}/activate", 1L))
                 .andExpect(status().isForbidden());
@@ -270,7 +401,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("DELETE /api/cards/{id} - returns 403 Forbidden for user without ADMIN role")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void deleteById_ReturnsForbidden_WhenRoleUser() throws Exception {
         mockMvc.perform(delete("/api/cards/{id}", 1L))
                 .andExpect(status().isForbidden());
@@ -278,7 +409,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("GET /api/cards/my - returns 200 OK with user's cards")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void getMyCards_ReturnsCards_WhenUserAuthenticated() throws Exception {
         CardDto card1 = new CardDto();
         card1.setId(2L);
@@ -291,7 +422,9 @@ public class CardControllerTest {
         List<CardDto> content = List.of(card1, card2);
         Page<CardDto> page = new PageImpl<>(content, PageRequest.of(0, 3), 6);
 
-        Mockito.when(cardService.getCardsByUsername("user", null, 0, 3)).thenReturn(page);
+        Mockito.when(cardService.getVersionSummaryByHolderId(2L))
+                .thenReturn(new CardVersionSummary(6L, 4L, 9L, 1));
+        Mockito.when(cardService.getCardsByHolderId(2L, null, 0, 3, CardField.ALL)).thenReturn(page);
         mockMvc.perform(get("/api/cards/my"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -300,12 +433,40 @@ public class CardControllerTest {
                 .andExpect(jsonPath("$.content[1].id").value(card2.getId()))
                 .andExpect(jsonPath("$.totalElements").value(6))
                 .andExpect(jsonPath("$.number").value(0))
-                .andExpect(jsonPath("$.size").value(3));
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"6-4-9-1\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/cards/my - returns 304 Not Modified when user's cards are unchanged")
+    @WithMockJwtUser
+    void getMyCards_ReturnsNotModified_WhenEtagMatches() throws Exception {
+        Mockito.when(cardService.getVersionSummaryByHolderId(2L))
+                .thenReturn(new CardVersionSummary(6L, 4L, 9L, 1));
+        mockMvc.perform(get("/api/cards/my")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"6-4-9-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(cardService, never()).getCardsByHolderId(anyLong(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/cards/my - returns the cards again after the user was renamed")
+    @WithMockJwtUser
+    void getMyCards_ReturnsCards_WhenHolderRenamed() throws Exception {
+        Mockito.when(cardService.getVersionSummaryByHolderId(2L))
+                .thenReturn(new CardVersionSummary(6L, 4L, 9L, 2));
+        Mockito.when(cardService.getCardsByHolderId(2L, null, 0, 3, CardField.ALL))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 3), 6));
+        mockMvc.perform(get("/api/cards/my")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"6-4-9-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"6-4-9-2\""));
     }
 
     @Test
     @DisplayName("GET /api/cards/my?status=ACTIVE - returns only active cards")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void getMyCards_ReturnsFilteredCards_WhenStatusProvided() throws Exception {
         CardDto card = new CardDto();
         card.setId(5L);
@@ -313,7 +474,9 @@ public class CardControllerTest {
 
         Page<CardDto> page = new PageImpl<>(List.of(card), PageRequest.of(0, 3), 1);
 
-        Mockito.when(cardService.getCardsByUsername("user", CardStatus.ACTIVE, 0, 3))
+        Mockito.when(cardService.getVersionSummaryByHolderId(2L))
+                .thenReturn(new CardVersionSummary(1L, 5L, 0L, 0));
+        Mockito.when(cardService.getCardsByHolderId(2L, CardStatus.ACTIVE, 0, 3, CardField.ALL))
                 .thenReturn(page);
         mockMvc.perform(get("/api/cards/my")
                         .param("status", "ACTIVE"))
@@ -324,6 +487,26 @@ public class CardControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    @DisplayName("GET /api/cards/my?includeArchived=true - includes archived cards")
+    @WithMockJwtUser
+    void getMyCards_IncludesArchivedCards_WhenRequested() throws Exception {
+        CardDto card = new CardDto();
+        card.setId(1L);
+        card.setStatus(CardStatus.EXPIRED);
+
+        Mockito.when(cardService.getVersionSummaryByHolderId(2L))
+                .thenReturn(new CardVersionSummary(0L, 0L, 0L, 0));
+        Mockito.when(cardService.getCardsWithArchivedByHolderId(2L, null, 0, 3, CardField.ALL))
+                .thenReturn(new PageImpl<>(List.of(card), PageRequest.of(0, 3), 1));
+        mockMvc.perform(get("/api/cards/my")
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].status").value("EXPIRED"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+        verify(cardService, never()).getCardsByHolderId(anyLong(), any(), anyInt(), anyInt(), any());
+    }
+
     @Test
     @DisplayName("GET /api/cards/my - returns 403 Forbidden for user without USER role")
     @WithMockUser(username = "admin", roles = "ADMIN")
@@ -334,17 +517,31 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("GET /api/cards/balance - returns 200 OK with user's total balance")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void getBalance_ReturnsTotalBalance_WhenRoleUser() throws Exception {
         BigDecimal balance = new BigDecimal("100000.12");
 
-        Mockito.when(cardService.getBalanceByUsername("user")).thenReturn(balance);
+        Mockito.when(cardService.getVersionSummaryByHolderId(2L))
+                .thenReturn(new CardVersionSummary(2L, 2L, 0L, 0));
+        Mockito.when(cardService.getBalanceByHolderId(2L)).thenReturn(balance);
         mockMvc.perform(get("/api/cards/balance"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.balance").value(balance));
     }
 
+    @Test
+    @DisplayName("GET /api/cards/balance - returns 304 Not Modified when user's cards are unchanged")
+    @WithMockJwtUser
+    void getBalance_ReturnsNotModified_WhenEtagMatches() throws Exception {
+        Mockito.when(cardService.getVersionSummaryByHolderId(2L))
+                .thenReturn(new CardVersionSummary(2L, 2L, 0L, 0));
+        mockMvc.perform(get("/api/cards/balance")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-2-0-0\""))
+                .andExpect(status().isNotModified());
+        verify(cardService, never()).getBalanceByHolderId(2L);
+    }
+
     @Test
     @DisplayName("GET /api/cards/balance - returns 403 Forbidden for user without USER role")
     @WithMockUser(username = "admin", roles = "ADMIN")
@@ -355,7 +552,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("POST /api/cards/transfer - returns 200 OK when transfer succeeds")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void transfer_ReturnsOk_WhenTransferSuccessful() throws Exception {
         TransferDto dto = new TransferDto();
         dto.setFromCardId(1L);
@@ -368,12 +565,12 @@ public class CardControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.message").value("Transfer completed successfully"));
-        verify(cardService, times(1)).transfer(eq(dto), eq("user"));
+        verify(cardService, times(1)).transfer(eq(dto), eq(2L));
     }
 
     @Test
     @DisplayName("POST /api/cards/transfer - returns 404 Not Found when card doesn't exist")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void transfer_ReturnsNotFound_WhenCardMissing() throws Exception {
         TransferDto dto = new TransferDto();
         dto.setFromCardId(1L);
@@ -381,7 +578,7 @@ public class CardControllerTest {
         dto.setAmount(BigDecimal.valueOf(5000));
 
         doThrow(new CardNotFoundException(dto.getFromCardId()))
-                .when(cardService).transfer(eq(dto), eq("user"));
+                .when(cardService).transfer(eq(dto), eq(2L));
         mockMvc.perform(post("/api/cards/transfer")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -393,7 +590,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("POST /api/cards/transfer - returns 403 Forbidden when transfer between not own cards")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void transfer_ReturnsForbidden_WhenNotOwnCards() throws Exception {
         TransferDto dto = new TransferDto();
         dto.setFromCardId(1L);
@@ -401,7 +598,7 @@ public class CardControllerTest {
         dto.setAmount(BigDecimal.valueOf(5000));
 
         doThrow(new UnauthorizedActionException("You can transfer only between your own cards."))
-                .when(cardService).transfer(eq(dto), eq("user"));
+                .when(cardService).transfer(eq(dto), eq(2L));
         mockMvc.perform(post("/api/cards/transfer")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -413,7 +610,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("POST /api/cards/transfer - returns 400 Bad Request when card not active")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void transfer_ReturnsBadRequest_WhenCardInactive() throws Exception {
         TransferDto dto = new TransferDto();
         dto.setFromCardId(1L);
@@ -421,7 +618,7 @@ public class CardControllerTest {
         dto.setAmount(BigDecimal.valueOf(100000));
 
         doThrow(new CardNotActiveException(dto.getFromCardId()))
-                .when(cardService).transfer(eq(dto), eq("user"));
+                .when(cardService).transfer(eq(dto), eq(2L));
         mockMvc.perform(post("/api/cards/transfer")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -433,7 +630,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("POST /api/cards/transfer - returns 400 Bad Request when insufficient funds on card")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void transfer_ReturnsBadRequest_WhenInsufficientFunds() throws Exception {
         TransferDto dto = new TransferDto();
         dto.setFromCardId(1L);
@@ -441,7 +638,7 @@ public class CardControllerTest {
         dto.setAmount(BigDecimal.valueOf(100000));
 
         doThrow(new InsufficientFundsException(dto.getFromCardId()))
-                .when(cardService).transfer(eq(dto), eq("user"));
+                .when(cardService).transfer(eq(dto), eq(2L));
         mockMvc.perform(post("/api/cards/transfer")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -469,7 +666,7 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("PATCH /api/cards/{id}/request-block - returns 200 OK when card is active")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void requestBlock_ReturnsOk_WhenCardIsActive() throws Exception {
         Long cardId = 1L;
 
@@ -477,17 +674,17 @@ public class CardControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.message").value("Block request submitted"));
-        Mockito.verify(cardService, times(1)).requestBlock(cardId, "user");
+        Mockito.verify(cardService, times(1)).requestBlock(cardId, 2L);
     }
 
     @Test
     @DisplayName("PATCH /api/cards/{id}/request-block - returns 404 Not Found when card doesn't exist")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void requestBlock_ReturnsNotFound_WhenCardMissing() throws Exception {
         Long cardId = 999L;
 
         Mockito.doThrow(new CardNotFoundException(cardId))
-                .when(cardService).requestBlock(cardId, "user");
+                .when(cardService).requestBlock(cardId, 2L);
         mockMvc.perform(patch("/api/cards/{id}/request-block", cardId))
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -497,12 +694,12 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("PATCH /api/cards/{id}/request-block - returns 400 Not Found when user does not own the card")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void requestBlock_ReturnsBadRequest_WhenNotOwnCard() throws Exception {
         Long cardId = 1L;
 
         Mockito.doThrow(new UnauthorizedActionException("You can request block only for your own cards."))
-                .when(cardService).requestBlock(cardId, "user");
+                .when(cardService).requestBlock(cardId, 2L);
         mockMvc.perform(patch("/api/cards/{id}/request-block", cardId))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -512,12 +709,12 @@ public class CardControllerTest {
 
     @Test
     @DisplayName("PATCH /api/cards/{id}/request-block - returns 400 Not Found when card is now active")
-    @WithMockUser(username = "user", roles = "USER")
+    @WithMockJwtUser
     void requestBlock_ReturnsBadRequest_WhenCardInactive() throws Exception {
         Long cardId = 1L;
 
         Mockito.doThrow(new UnauthorizedActionException("Only active cards can be blocked."))
-                .when(cardService).requestBlock(cardId, "user");
+                .when(cardService).requestBlock(cardId, 2L);
         mockMvc.perform(patch("/api/cards/{id}/request-block", cardId))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -534,4 +731,79 @@ public class CardControllerTest {
         mockMvc.perform(patch("/api/cards/{id}/request-block", cardId))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @DisplayName("PATCH /api/cards/status - returns changed card ids")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void changeStatuses_ReturnsChangedIds() throws Exception {
+        when(cardBulkService.changeStatuses(argThat(request ->
+                request.getStatus() == CardStatus.BLOCKED && request.getIds().size() == 3)))
+                .thenReturn(new CardStatusChangeResult(CardStatus.BLOCKED, 2, List.of(1L, 3L)));
+
+        mockMvc.perform(patch("/api/cards/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2, 3], \"status\": \"BLOCKED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(2))
+                .andExpect(jsonPath("$.changedIds[1]").value(3));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/cards/status - returns 400 when both ids and filter are given")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void changeStatuses_ReturnsBadRequest_WhenSelectionAmbiguous() throws Exception {
+        mockMvc.perform(patch("/api/cards/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1], \"filter\": {\"holderId\": 2}, \"status\": \"BLOCKED\"}"))
+                .andExpect(status().isBadRequest());
+        verify(cardBulkService, never()).changeStatuses(any());
+    }
+
+    @Test
+    @DisplayName("PATCH /api/cards/status - returns 403 Forbidden for non-admin")
+    @WithMockUser(username = "user", roles = "USER")
+    void changeStatuses_ReturnsForbidden_WhenRoleIsNotAdmin() throws Exception {
+        mockMvc.perform(patch("/api/cards/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1], \"status\": \"BLOCKED\"}"))
+                .andExpect(status().isForbidden());
+        verify(cardBulkService, never()).changeStatuses(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/cards/bulk-delete - returns deleted card ids")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void bulkDelete_ReturnsDeletedIds() throws Exception {
+        when(cardBulkService.softDelete(argThat(request -> request.getFilter().getHolderId() == 2L)))
+                .thenReturn(new BulkDeleteResult(2, List.of(4L, 5L)));
+
+        mockMvc.perform(post("/api/cards/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {\"holderId\": 2}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.deletedIds[1]").value(5));
+    }
+
+    @Test
+    @DisplayName("POST /api/cards/bulk-delete - returns 400 when nothing is selected")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void bulkDelete_ReturnsBadRequest_WhenSelectionEmpty() throws Exception {
+        mockMvc.perform(post("/api/cards/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+        verify(cardBulkService, never()).softDelete(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/cards/bulk-delete - returns 403 Forbidden for non-admin")
+    @WithMockUser(username = "user", roles = "USER")
+    void bulkDelete_ReturnsForbidden_WhenRoleIsNotAdmin() throws Exception {
+        mockMvc.perform(post("/api/cards/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1]}"))
+                .andExpect(status().isForbidden());
+        verify(cardBulkService, never()).softDelete(any());
+    }
 }
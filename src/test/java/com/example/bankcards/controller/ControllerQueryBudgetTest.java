@@ -0,0 +1,124 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.MaxQueries;
+import com.example.bankcards.WithMockJwtUser;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.metrics.SqlStatsFilter;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.EncryptionUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs controller endpoints against an in-memory database to catch N+1 regressions.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ControllerQueryBudgetTest {
+    private static final int CARDS_PER_USER = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+
+    private Long cardId;
+
+    @BeforeEach
+    void setUp() {
+        for (User holder : userRepository.findAll()) {
+            for (int i = 0; i < CARDS_PER_USER; i++) {
+                Card card = new Card();
+                card.setNumber(encryptionUtil.encrypt(String.format("4000%06d%06d", holder.getId(), i)));
+                card.setHolder(holder);
+                card.setExpirationDate(LocalDate.now().plusYears(3));
+                card.setStatus(CardStatus.ACTIVE);
+                card.setBalance(BigDecimal.TEN);
+                cardId = cardRepository.save(card).getId();
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @MaxQueries(3)
+    @DisplayName("GET /api/users loads roles and cards without a query per user")
+    void testGetAllUsers() throws Exception {
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatsFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @MaxQueries(3)
+    @DisplayName("GET /api/users/{id}")
+    void testGetUserById() throws Exception {
+        mockMvc.perform(get("/api/users/2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @MaxQueries(2)
+    @DisplayName("GET /api/cards loads holders without a query per card")
+    void testGetAllCards() throws Exception {
+        mockMvc.perform(get("/api/cards"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @MaxQueries(2)
+    @DisplayName("GET /api/cards/{id}")
+    void testGetCardById() throws Exception {
+        mockMvc.perform(get("/api/cards/" + cardId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockJwtUser
+    @MaxQueries(4)
+    @DisplayName("GET /api/cards/my")
+    void testGetMyCards() throws Exception {
+        mockMvc.perform(get("/api/cards/my"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockJwtUser
+    @MaxQueries(2)
+    @DisplayName("GET /api/cards/balance")
+    void testGetBalance() throws Exception {
+        mockMvc.perform(get("/api/cards/balance"))
+                .andExpect(status().isOk());
+    }
+}
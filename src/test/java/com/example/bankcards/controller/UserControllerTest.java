@@ -2,11 +2,18 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.TestSecurityConfig;
 import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.config.RateLimitConfig;
+import com.example.bankcards.dto.BulkDeleteResult;
 import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.UserImportResult;
 import com.example.bankcards.dto.UserUpdateDto;
 import com.example.bankcards.exception.DuplicateUsernameException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.security.AccessTokenRevocationList;
 import com.example.bankcards.security.JwtService;
+import com.example.bankcards.security.TokenVersionCache;
+import com.example.bankcards.service.UserBulkService;
+import com.example.bankcards.service.UserImportService;
 import com.example.bankcards.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -37,10 +44,20 @@ public class UserControllerTest {
     private JwtService jwtService;
     @MockBean
     private JwtConfig jwtConfig;
+    @MockBean
+    private TokenVersionCache tokenVersionCache;
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+    @MockBean
+    private RateLimitConfig rateLimitConfig;
     @Autowired
     private ObjectMapper objectMapper;
     @MockBean
     private UserService userService;
+    @MockBean
+    private UserImportService userImportService;
+    @MockBean
+    private UserBulkService userBulkService;
 
     @Test
     @DisplayName("GET /api/users/{id} - returns 200 OK with user details")
@@ -276,4 +293,57 @@ public class UserControllerTest {
         mockMvc.perform(delete("/api/users/{id}", 1L))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @DisplayName("POST /api/users/import - returns 200 OK with the import report")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void importUsers_ReturnsReport() throws Exception {
+        when(userImportService.importCsv(any())).thenReturn(new UserImportResult(1, 1,
+                List.of(new UserImportResult.RowError(3, "dupe", "Username already exists"))));
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv")
+                        .content("username,password,roles\nnewuser,secret,USER\ndupe,secret,USER\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Username already exists"));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/import - returns 403 Forbidden for non-admin")
+    @WithMockUser(username = "user", roles = "USER")
+    void importUsers_ReturnsForbidden_WhenRoleIsNotAdmin() throws Exception {
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv")
+                        .content("username,password,roles\n"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    @DisplayName("POST /api/users/bulk-delete - returns deleted user ids")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void bulkDelete_ReturnsDeletedIds() throws Exception {
+        when(userBulkService.softDelete(Set.of(2L, 3L))).thenReturn(new BulkDeleteResult(1, List.of(2L)));
+
+        mockMvc.perform(post("/api/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [2, 3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.deletedIds[0]").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/bulk-delete - returns 400 when no ids are given")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void bulkDelete_ReturnsBadRequest_WhenIdsEmpty() throws Exception {
+        mockMvc.perform(post("/api/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userBulkService);
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.bankcards.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SamplingTurboFilterTest {
+    private SamplingTurboFilter filter;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setPermitsPerSecond(2);
+        logger = new LoggerContext().getLogger("test");
+        logger.setLevel(Level.INFO);
+    }
+
+    @Test
+    @DisplayName("Sampled lines are limited per format and second")
+    void testTryAcquire() {
+        assertTrue(filter.tryAcquire("a", 100));
+        assertTrue(filter.tryAcquire("a", 100));
+        assertFalse(filter.tryAcquire("a", 100));
+        assertTrue(filter.tryAcquire("b", 100));
+        assertTrue(filter.tryAcquire("a", 101));
+    }
+
+    @Test
+    @DisplayName("Unmarked lines and warnings are never sampled")
+    void testDecideIfNotSampled() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "unmarked", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(LogMarkers.SAMPLED, logger, Level.WARN, "warn", null, null));
+        }
+    }
+
+    @Test
+    @DisplayName("Marked lines beyond the allowance are denied")
+    void testDecideIfSampled() {
+        filter.setPermitsPerSecond(0);
+
+        assertEquals(FilterReply.DENY, filter.decide(LogMarkers.SAMPLED, logger, Level.INFO, "hot", null, null));
+    }
+
+    @Test
+    @DisplayName("Marked lines of a disabled level do not use up the allowance")
+    void testDecideIfLevelDisabled() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(LogMarkers.SAMPLED, logger, Level.DEBUG, "debug", null, null));
+        }
+
+        assertTrue(filter.tryAcquire("debug", 100));
+    }
+}
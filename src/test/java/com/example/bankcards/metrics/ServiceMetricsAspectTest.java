@@ -0,0 +1,70 @@
+package com.example.bankcards.metrics;
+
+import com.example.bankcards.config.ShardingConfig;
+import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.mapper.UserMapper;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.TokenVersionCache;
+import com.example.bankcards.service.CardPageCache;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.shard.ShardRouter;
+import com.example.bankcards.shard.UserDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ServiceMetricsAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new UserService(userRepository, mock(CardRepository.class), mock(RoleRepository.class), mock(UserMapper.class),
+                        mock(PasswordEncoder.class), mock(TokenVersionCache.class), mock(CardPageCache.class),
+                        new ShardRouter(new ShardingConfig(), Optional.empty()), mock(UserDirectory.class)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        userService = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Successful calls are timed with the success outcome")
+    void testMeasureIfSucceeded() {
+        when(userRepository.findAll()).thenReturn(List.of());
+
+        userService.getAll();
+
+        assertEquals(1, meterRegistry.get(ServiceMetricsAspect.TIMER_NAME)
+                .tags("service", "UserService", "method", "getAll", "outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("Failed calls are timed by exception type on one timer per outcome")
+    void testMeasureIfFailed() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getById(1L));
+
+        assertThrows(UserNotFoundException.class, () -> userService.getById(1L));
+
+        assertEquals(2, meterRegistry.get(ServiceMetricsAspect.TIMER_NAME)
+                .tags("service", "UserService", "method", "getById", "outcome", "UserNotFoundException")
+                .timer().count());
+    }
+}
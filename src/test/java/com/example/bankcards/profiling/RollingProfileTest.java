@@ -0,0 +1,97 @@
+package com.example.bankcards.profiling;
+
+import com.example.bankcards.dto.ProfilingSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RollingProfileTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private Clock clock;
+    private RollingProfile profile;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        when(clock.instant()).thenReturn(NOW);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        profile = new RollingProfile(Duration.ofMinutes(1), Duration.ofSeconds(10), 2, Duration.ofMillis(50), clock);
+    }
+
+    @Test
+    @DisplayName("Event timings are aggregated per event across buckets")
+    void testRecordEvent() {
+        profile.recordEvent("bankcards.Transfer", NOW.minusSeconds(30), Duration.ofMillis(10), "t", () -> "");
+        profile.recordEvent("bankcards.Transfer", NOW, Duration.ofMillis(30), "t", () -> "");
+        profile.recordEvent("bankcards.CardCrypto", NOW, Duration.ofMillis(1), "t", () -> "");
+
+        ProfilingSummary summary = profile.summarize(true);
+
+        assertEquals(2, summary.events().size());
+        ProfilingSummary.Timing transfer = summary.events().get(0);
+        assertEquals("bankcards.Transfer", transfer.name());
+        assertEquals(2, transfer.count());
+        assertEquals(40.0, transfer.totalMs());
+        assertEquals(20.0, transfer.avgMs());
+        assertEquals(30.0, transfer.maxMs());
+        assertTrue(summary.slowEvents().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Samples older than the window are dropped")
+    void testWindow() {
+        profile.recordEvent("bankcards.Transfer", NOW.minusSeconds(90), Duration.ofMillis(10), "t", () -> "");
+        profile.recordContention("java.lang.Object at A.b:1", NOW.minusSeconds(20), Duration.ofMillis(15));
+
+        when(clock.millis()).thenReturn(NOW.plusSeconds(35).toEpochMilli());
+        ProfilingSummary summary = profile.summarize(true);
+
+        assertTrue(summary.events().isEmpty());
+        assertEquals(1, summary.lockContention().size());
+
+        when(clock.millis()).thenReturn(NOW.plusSeconds(60).toEpochMilli());
+        assertTrue(profile.summarize(true).lockContention().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Only the slowest events above the threshold are kept and described")
+    void testSlowEvents() {
+        profile.recordEvent("bankcards.Transfer", NOW, Duration.ofMillis(60), "t", () -> "a");
+        profile.recordEvent("bankcards.Transfer", NOW, Duration.ofMillis(90), "t", () -> "b");
+        profile.recordEvent("bankcards.Transfer", NOW, Duration.ofMillis(70), "t", () -> "c");
+        profile.recordEvent("bankcards.Transfer", NOW, Duration.ofMillis(40), "t", () -> fail("described"));
+
+        ProfilingSummary summary = profile.summarize(true);
+
+        assertEquals(2, summary.slowEvents().size());
+        assertEquals("b", summary.slowEvents().get(0).detail());
+        assertEquals("c", summary.slowEvents().get(1).detail());
+    }
+
+    @Test
+    @DisplayName("Allocation hot spots are ranked by sampled bytes")
+    void testRecordAllocation() {
+        profile.recordAllocation("byte[] at A.a:1", NOW, 100);
+        profile.recordAllocation("byte[] at A.a:1", NOW, 100);
+        profile.recordAllocation("String at B.b:2", NOW, 500);
+        profile.recordAllocation("Long at C.c:3", NOW, 1);
+
+        ProfilingSummary summary = profile.summarize(true);
+
+        assertEquals(2, summary.allocations().size());
+        assertEquals("String at B.b:2", summary.allocations().get(0).site());
+        assertEquals(2, summary.allocations().get(1).samples());
+        assertEquals(200, summary.allocations().get(1).bytes());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.entity.RevokedAccessToken;
+import com.example.bankcards.repository.RevokedAccessTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AccessTokenRevocationListTest {
+    @Mock
+    private RevokedAccessTokenRepository repository;
+
+    private AccessTokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        when(repository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(new RevokedAccessToken("stored", expiresAt, Instant.now())));
+        revocationList = new AccessTokenRevocationList(repository, jwtConfig);
+        revocationList.init();
+    }
+
+    @Test
+    @DisplayName("Revocations stored in the database are loaded on startup")
+    void testIsRevokedIfLoadedOnStartup() {
+        assertTrue(revocationList.isRevoked("stored"));
+        assertFalse(revocationList.isRevoked("other"));
+        assertFalse(revocationList.isRevoked(null));
+        verify(repository, times(1)).deleteExpired(any());
+    }
+
+    @Test
+    @DisplayName("Revoked token is rejected immediately and persisted")
+    void testRevoke() {
+        revocationList.revoke("new", Instant.now().plusSeconds(60));
+
+        assertTrue(revocationList.isRevoked("new"));
+        verify(repository, times(1)).save(any(RevokedAccessToken.class));
+    }
+
+    @Test
+    @DisplayName("Already expired token is not stored")
+    void testRevokeIfExpired() {
+        revocationList.revoke("expired", Instant.now().minusSeconds(1));
+
+        assertFalse(revocationList.isRevoked("expired"));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Revocations made by other nodes are picked up on refresh")
+    void testRefresh() {
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(new RevokedAccessToken("remote", Instant.now().plusSeconds(60), Instant.now())));
+
+        revocationList.refresh();
+
+        assertTrue(revocationList.isRevoked("remote"));
+        assertTrue(revocationList.isRevoked("stored"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.PasswordHashingConfig;
+import com.example.bankcards.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingConfig config = new PasswordHashingConfig();
+        config.setThreads(1);
+        config.setQueueCapacity(1);
+        config.setRetryAfterSeconds(3);
+        executor = new PasswordHashingExecutor(config, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Matches and encodes on the hashing pool")
+    void testMatchesAndEncode() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 4);
+
+        String encoded = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+        assertEquals(2, meterRegistry.get("auth.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Rejects password checks when the queue is full")
+    void testMatchesIfQueueFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches(() -> {
+            started.countDown();
+            await(release);
+            return true;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches(() -> true));
+        while (meterRegistry.get("auth.password.hashing.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        PasswordHashingOverloadedException e = assertThrows(PasswordHashingOverloadedException.class,
+                () -> executor.matches(() -> true));
+
+        assertEquals(3, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Requests re-hashing when the BCrypt cost differs from the configured one")
+    void testUpgradeEncoding() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor, 5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret")));
+        assertFalse(encoder.upgradeEncoding("plain"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.JwtConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+    private JwtConfig jwtConfig;
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtService jwtService;
+
+    private final AuthenticatedUser user = new AuthenticatedUser(
+            7L, "user", "password", 3, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("0123456789abcdef0123456789abcdef");
+        jwtConfig.setExpirationMs(60_000);
+        jwtConfig.init();
+        verifiedTokenCache = new VerifiedTokenCache(jwtConfig);
+        jwtService = new JwtService(jwtConfig, verifiedTokenCache, new SimpleMeterRegistry());
+        jwtService.init();
+    }
+
+    @Test
+    @DisplayName("Extract claims from a generated token")
+    void testExtractClaims() {
+        Claims claims = jwtService.extractClaims(jwtService.generateToken(user));
+
+        assertEquals(new JwtPrincipal(7L, "user"), jwtService.extractPrincipal(claims));
+        assertEquals(3, jwtService.extractTokenVersion(claims));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), jwtService.extractAuthorities(claims));
+    }
+
+    @Test
+    @DisplayName("Repeated verification of the same token is served from the cache")
+    void testExtractClaimsIfAlreadyVerified() {
+        String token = jwtService.generateToken(user);
+
+        Claims first = jwtService.extractClaims(token);
+        Claims second = jwtService.extractClaims(token);
+
+        assertSame(first, second);
+        assertEquals(1, verifiedTokenCache.size());
+    }
+
+    @Test
+    @DisplayName("Tampered token is rejected and not cached")
+    void testExtractClaimsIfSignatureInvalid() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtService.extractClaims(tampered));
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    @DisplayName("Expired token is rejected")
+    void testExtractClaimsIfExpired() {
+        jwtConfig.setExpirationMs(-1_000);
+        String token = jwtService.generateToken(user);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractClaims(token));
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    @DisplayName("Full cache drops the least recently used token to cache a new one")
+    void testExtractClaimsIfCacheFull() {
+        jwtConfig.setVerifiedTokenCacheSize(1);
+        verifiedTokenCache = new VerifiedTokenCache(jwtConfig);
+        jwtService = new JwtService(jwtConfig, verifiedTokenCache, new SimpleMeterRegistry());
+        jwtService.init();
+        String first = jwtService.generateToken(user);
+        String second = jwtService.generateToken(new AuthenticatedUser(
+                8L, "other", "password", 0, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        jwtService.extractClaims(first);
+        Claims claims = jwtService.extractClaims(second);
+
+        assertEquals("other", claims.getSubject());
+        assertEquals(1, verifiedTokenCache.size());
+        assertNull(verifiedTokenCache.get(first));
+        assertEquals("other", verifiedTokenCache.get(second).getSubject());
+    }
+}
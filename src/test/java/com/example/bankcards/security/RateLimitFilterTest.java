@@ -0,0 +1,125 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.RateLimitConfig;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitFilterTest {
+    @Mock
+    private JwtService jwtService;
+
+    private RateLimitConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new RateLimitConfig();
+        config.setAuth(new RateLimitConfig.Limit(2, 1));
+        config.setRead(new RateLimitConfig.Limit(3, 1));
+    }
+
+    @Test
+    @DisplayName("Requests over the limit of their route class are rejected with 429")
+    void testRejectIfLimitExceeded() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(config, jwtService);
+
+        assertEquals(200, send(filter, "POST", "/auth/login", "1.1.1.1").getStatus());
+        MockHttpServletResponse second = send(filter, "POST", "/auth/login", "1.1.1.1");
+        MockHttpServletResponse third = send(filter, "POST", "/auth/login", "1.1.1.1");
+
+        assertEquals("0", second.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(429, third.getStatus());
+        assertEquals("2", third.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", third.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, send(filter, "POST", "/auth/login", "2.2.2.2").getStatus());
+        assertEquals(200, send(filter, "GET", "/api/cards/my", "1.1.1.1").getStatus());
+    }
+
+    @Test
+    @DisplayName("Requests with an already verified token are limited per username")
+    void testKeyByUsernameIfTokenVerified() throws Exception {
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn("user");
+        when(jwtService.peekVerifiedClaims("known")).thenReturn(claims);
+        RateLimitFilter filter = new RateLimitFilter(config, jwtService);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = request("GET", "/api/cards/my", "10.0.0." + i);
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer known");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+            assertSame(claims, request.getAttribute(JwtService.VERIFIED_CLAIMS_ATTRIBUTE));
+        }
+
+        MockHttpServletRequest request = request("GET", "/api/cards/my", "10.0.0.9");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer known");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Idle full buckets are evicted once the bucket limit is reached")
+    void testEvictIfMaxBucketsReached() throws Exception {
+        config.setMaxBuckets(2);
+        config.setRead(new RateLimitConfig.Limit(1, 1_000_000));
+        RateLimitFilter filter = new RateLimitFilter(config, jwtService);
+
+        send(filter, "GET", "/api/cards/my", "1.1.1.1");
+        send(filter, "GET", "/api/cards/my", "2.2.2.2");
+        Thread.sleep(2);
+        send(filter, "GET", "/api/cards/my", "3.3.3.3");
+
+        assertTrue(filter.bucketCount() <= 2);
+    }
+
+    @Test
+    @DisplayName("Disabled rate limiting passes every request through")
+    void testPassIfDisabled() throws Exception {
+        config.setEnabled(false);
+        RateLimitFilter filter = new RateLimitFilter(config, jwtService);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(filter, "POST", "/auth/login", "1.1.1.1").getStatus());
+        }
+        assertEquals(0, filter.bucketCount());
+    }
+
+    @Test
+    @DisplayName("Token bucket refills over time")
+    void testTokenBucketRefill() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+
+        assertEquals(1, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(-500, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(500));
+        assertFalse(bucket.isFull(500));
+        assertTrue(bucket.isFull(1500));
+    }
+
+    private MockHttpServletResponse send(RateLimitFilter filter, String method, String uri, String ip) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bankcards.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Needs a running Tomcat, since {@code server.forward-headers-strategy: native} is applied by its
+ * remote IP valve, which MockMvc bypasses. The test client connects from loopback, a trusted proxy.
+ * The context cannot be shared with the MockMvc tests, so it gets its own database for Liquibase to set up.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"rate-limit.enabled=true", "rate-limit.auth.capacity=2",
+                "spring.datasource.url=jdbc:h2:mem:forwarded-headers;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"})
+@ActiveProfiles("test")
+public class RateLimitForwardedHeadersTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Anonymous requests through a proxy are limited per X-Forwarded-For client")
+    void testKeyByForwardedFor() {
+        ResponseEntity<String> response = null;
+        for (int i = 0; i < 10; i++) {
+            response = login("203.0.113.1");
+            if (response.getStatusCode().value() == 429) {
+                break;
+            }
+        }
+        assertEquals(429, response.getStatusCode().value());
+
+        ResponseEntity<String> other = login("203.0.113.2");
+        assertNotEquals(429, other.getStatusCode().value());
+        assertEquals("1", other.getHeaders().getFirst(RateLimitFilter.REMAINING_HEADER));
+    }
+
+    /**
+     * A GET of the login route is counted against the auth limit and answered with 405, which unlike a
+     * failed login carries no authentication challenge the JDK client would try to answer.
+     */
+    private ResponseEntity<String> login(String client) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Forwarded-For", client);
+        return restTemplate.exchange("/auth/login", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bankcards.serializer;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JsonTest
+public class JsonSerializersGoldenTest {
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private JwtConfig jwtConfig;
+
+    @Test
+    @DisplayName("Module is registered on the application ObjectMapper")
+    void moduleIsRegistered() {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BankCardsJacksonModule().getTypeId()));
+    }
+
+    @Test
+    @DisplayName("CardDto output is byte-identical to bean serialization")
+    void cardMatchesGolden() throws IOException {
+        assertGolden("card.json", fullCard());
+        assertGolden("card-empty.json", new CardDto());
+        assertGolden("card-list.json", List.of(fullCard(), new CardDto()));
+    }
+
+    @Test
+    @DisplayName("UserDto output is byte-identical to bean serialization")
+    void userMatchesGolden() throws IOException {
+        UserDto user = new UserDto();
+        user.setId(2L);
+        user.setUsername("user");
+        user.setPassword("$2a$10$x");
+        user.setRoles(new LinkedHashSet<>(List.of("USER", "ADMIN")));
+        user.setCards(List.of(fullCard(), new CardDto()));
+
+        assertGolden("user.json", user);
+        assertGolden("user-empty.json", new UserDto());
+    }
+
+    @Test
+    @DisplayName("Page output is byte-identical to bean serialization")
+    void pageMatchesGolden() throws IOException {
+        assertGolden("card-page.json", new PageImpl<>(List.of(fullCard(), new CardDto()), PageRequest.of(0, 3), 6));
+        assertGolden("card-page-sorted.json",
+                new PageImpl<>(List.of(fullCard()), PageRequest.of(1, 2, Sort.by("id").descending()), 6));
+    }
+
+    @Test
+    @DisplayName("CardDto with included fields writes only those fields")
+    void sparseCardWritesRequestedFields() throws IOException {
+        CardDto card = fullCard();
+        card.setIncludedFields(EnumSet.of(CardField.ID, CardField.STATUS, CardField.BALANCE));
+
+        assertEquals("{\"id\":1,\"status\":\"BLOCKED\",\"balance\":42000.00}",
+                objectMapper.writeValueAsString(card));
+    }
+
+    private void assertGolden(String file, Object value) throws IOException {
+        String expected = new ClassPathResource("golden/" + file).getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(expected, new String(objectMapper.writeValueAsBytes(value), StandardCharsets.UTF_8));
+    }
+
+    private static CardDto fullCard() {
+        CardDto card = new CardDto();
+        card.setId(1L);
+        card.setNumber("**** **** **** 5013");
+        card.setHolderName("user \"q\" é");
+        card.setExpirationDate(LocalDate.of(2030, 6, 22));
+        card.setStatus(CardStatus.BLOCKED);
+        card.setBalance(new BigDecimal("42000.00"));
+        card.setVersion(3L);
+        return card;
+    }
+}
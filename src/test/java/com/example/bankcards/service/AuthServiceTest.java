@@ -0,0 +1,157 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.JwtConfig;
+import com.example.bankcards.config.ShardingConfig;
+import com.example.bankcards.dto.TokenPair;
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InvalidRefreshTokenException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AccessTokenRevocationList;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.JwtService;
+import com.example.bankcards.shard.ShardRouter;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthServiceTest {
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private JwtConfig jwtConfig;
+    @Mock
+    private AccessTokenRevocationList revocationList;
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingConfig(), Optional.empty());
+    @InjectMocks
+    private AuthService authService;
+
+    @Test
+    @DisplayName("Issue tokens stores only the refresh token hash")
+    void testIssueTokens() {
+        AuthenticatedUser user = new AuthenticatedUser(1L, "user", "pass", 2, List.of());
+        when(jwtConfig.getRefreshExpirationMs()).thenReturn(60_000L);
+        when(jwtService.generateToken(user)).thenReturn("<jwt>");
+
+        TokenPair tokens = authService.issueTokens(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(1)).save(captor.capture());
+        assertEquals("<jwt>", tokens.token());
+        assertNotNull(tokens.refreshToken());
+        assertNotEquals(tokens.refreshToken(), captor.getValue().getTokenHash());
+        assertEquals(64, captor.getValue().getTokenHash().length());
+        assertEquals(2, captor.getValue().getTokenVersion());
+    }
+
+    @Test
+    @DisplayName("Refresh rotates a valid refresh token")
+    void testRefreshIfTokenValid() {
+        RefreshToken stored = refreshToken(false, Instant.now().plusSeconds(60), 0);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(stored.getId())).thenReturn(1);
+        when(jwtService.generateToken(any(AuthenticatedUser.class))).thenReturn("<jwt>");
+
+        TokenPair tokens = authService.refresh("raw");
+
+        assertEquals("<jwt>", tokens.token());
+        verify(refreshTokenRepository, times(1)).revokeIfActive(stored.getId());
+        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, never()).revokeAllByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Refresh with an already used token revokes all of the user's tokens")
+    void testRefreshIfTokenReused() {
+        RefreshToken stored = refreshToken(true, Instant.now().plusSeconds(60), 0);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh("raw"));
+        verify(refreshTokenRepository, times(1)).revokeAllByUserId(1L);
+        verify(jwtService, never()).generateToken(any());
+    }
+
+    @Test
+    @DisplayName("Refresh with an expired token fails")
+    void testRefreshIfTokenExpired() {
+        RefreshToken stored = refreshToken(false, Instant.now().minusSeconds(1), 0);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(stored.getId())).thenReturn(1);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh("raw"));
+        verify(jwtService, never()).generateToken(any());
+    }
+
+    @Test
+    @DisplayName("Refresh with a token issued before the user's token version changed fails")
+    void testRefreshIfTokenVersionOutdated() {
+        RefreshToken stored = refreshToken(false, Instant.now().plusSeconds(60), 1);
+        stored.getUser().setTokenVersion(2);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(stored.getId())).thenReturn(1);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh("raw"));
+        verify(jwtService, never()).generateToken(any());
+    }
+
+    @Test
+    @DisplayName("Refresh with an unknown token fails")
+    void testRefreshIfTokenUnknown() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh("raw"));
+        verify(refreshTokenRepository, never()).revokeIfActive(any());
+    }
+
+    @Test
+    @DisplayName("Logout revokes the access token and the refresh token")
+    void testLogout() {
+        Claims claims = mock(Claims.class);
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        when(claims.getId()).thenReturn("jti");
+        when(claims.getExpiration()).thenReturn(expiration);
+
+        authService.logout(claims, "raw");
+
+        verify(revocationList, times(1)).revoke("jti", expiration.toInstant());
+        verify(refreshTokenRepository, times(1)).revokeByTokenHash(anyString());
+    }
+
+    private RefreshToken refreshToken(boolean revoked, Instant expiresAt, int tokenVersion) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user");
+        user.setPassword("pass");
+        user.setTokenVersion(tokenVersion);
+
+        RefreshToken token = new RefreshToken();
+        token.setId(10L);
+        token.setUser(user);
+        token.setRevoked(revoked);
+        token.setExpiresAt(expiresAt);
+        token.setTokenVersion(tokenVersion);
+        return token;
+    }
+}
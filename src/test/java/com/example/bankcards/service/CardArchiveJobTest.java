@@ -0,0 +1,85 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.TestRows;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.repository.CardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CardArchiveJobTest {
+    @Autowired
+    private CardArchiveJob cardArchiveJob;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestRows rows;
+    private long holderId;
+
+    @BeforeEach
+    void setUp() {
+        rows = new TestRows(jdbcTemplate, "archive_");
+        holderId = rows.insertUser("holder", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rows.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Archive moves long blocked and expired cards and keeps them readable on request")
+    @Transactional
+    void testArchive() {
+        Instant now = Instant.now();
+        Instant old = now.minus(40, ChronoUnit.DAYS);
+        long blocked = rows.insertCard(holderId, "BLOCKED", new BigDecimal("5.00"), old, null);
+        long expired = rows.insertCard(holderId, "EXPIRED", new BigDecimal("0.00"), old, null);
+        long active = rows.insertCard(holderId, "ACTIVE", new BigDecimal("10.00"), old, null);
+        long recentlyBlocked = rows.insertCard(holderId, "BLOCKED", new BigDecimal("1.00"), now, null);
+
+        assertEquals(2, cardArchiveJob.archive(now));
+
+        assertEquals(List.of(active, recentlyBlocked),
+                jdbcTemplate.queryForList("select id from cards where card_holder_id = ? order by id", Long.class,
+                        holderId));
+        assertEquals(List.of(blocked, expired),
+                jdbcTemplate.queryForList("select id from cards_archive where card_holder_id = ? order by id",
+                        Long.class, holderId));
+        assertEquals(0, new BigDecimal("16.00").compareTo(cardService.getBalanceByHolderId(holderId)));
+
+        Page<CardDto> live = cardService.getCardsByHolderId(holderId, null, 0, 10, CardField.parse("id"));
+        assertEquals(2, live.getTotalElements());
+        Page<CardDto> all = cardService.getCardsWithArchivedByHolderId(holderId, null, 0, 3, CardField.parse("id"));
+        assertEquals(4, all.getTotalElements());
+        assertEquals(List.of(active, recentlyBlocked, blocked), all.getContent().stream().map(CardDto::getId).toList());
+        Page<CardDto> second = cardService.getCardsWithArchivedByHolderId(holderId, null, 1, 3,
+                CardField.parse("id,holderName"));
+        assertEquals(List.of(expired), second.getContent().stream().map(CardDto::getId).toList());
+        assertEquals("archive_holder", second.getContent().get(0).getHolderName());
+        assertTrue(cardRepository.findById(blocked).isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardBulkConfig;
+import com.example.bankcards.config.ShardingConfig;
+import com.example.bankcards.dto.BulkDeleteResult;
+import com.example.bankcards.dto.CardFilter;
+import com.example.bankcards.dto.CardSelectionDto;
+import com.example.bankcards.dto.CardStatusChangeDto;
+import com.example.bankcards.dto.CardStatusChangeResult;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CardBulkServiceTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement statement;
+
+    private CardBulkService cardBulkService;
+
+    @BeforeEach
+    void setUp() {
+        CardBulkConfig config = new CardBulkConfig();
+        config.setChunkSize(2);
+        cardBulkService = new CardBulkService(jdbcTemplate, transactionTemplate, config, new ShardRouter(new ShardingConfig(), Optional.empty()));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Change statuses by ids updates sorted chunks and collects the changed ids")
+    @SuppressWarnings("unchecked")
+    void testChangeByIds() throws SQLException {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(1L), List.of(5L));
+        CardStatusChangeDto request = new CardStatusChangeDto();
+        request.setIds(Set.of(5L, 1L, 3L));
+        request.setStatus(CardStatus.BLOCKED);
+
+        CardStatusChangeResult result = cardBulkService.changeStatuses(request);
+
+        assertEquals(2, result.changed());
+        assertEquals(List.of(1L, 5L), result.changedIds());
+        ArgumentCaptor<PreparedStatementCreator> creators = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(2)).query(creators.capture(), any(RowMapper.class));
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.createArrayOf(eq("bigint"), any())).thenReturn(mock(Array.class));
+        creators.getAllValues().get(0).createPreparedStatement(connection);
+        verify(connection).createArrayOf("bigint", new Long[]{1L, 3L});
+        verify(statement).setObject(1, "BLOCKED");
+        verify(statement).setObject(3, "BLOCKED");
+    }
+
+    @Test
+    @DisplayName("Change statuses by filter repeats until a chunk comes back short")
+    @SuppressWarnings("unchecked")
+    void testChangeByFilter() throws SQLException {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(1L, 2L), List.of(7L));
+        CardFilter filter = new CardFilter();
+        filter.setHolderId(9L);
+        CardStatusChangeDto request = new CardStatusChangeDto();
+        request.setFilter(filter);
+        request.setStatus(CardStatus.BLOCKED);
+
+        CardStatusChangeResult result = cardBulkService.changeStatuses(request);
+
+        assertEquals(List.of(1L, 2L, 7L), result.changedIds());
+        ArgumentCaptor<PreparedStatementCreator> creators = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(2)).query(creators.capture(), any(RowMapper.class));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(sql.capture())).thenReturn(statement);
+        creators.getValue().createPreparedStatement(connection);
+        assertTrue(sql.getValue().contains("card_holder_id = ?"));
+        assertTrue(sql.getValue().endsWith("returning id"));
+        verify(statement).setObject(4, 9L);
+        verify(statement).setObject(5, 2);
+    }
+
+    @Test
+    @DisplayName("Soft delete by ids only marks cards that are not deleted yet")
+    @SuppressWarnings("unchecked")
+    void testSoftDeleteByIds() throws SQLException {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(4L));
+        CardSelectionDto request = new CardSelectionDto();
+        request.setIds(Set.of(4L));
+
+        BulkDeleteResult result = cardBulkService.softDelete(request);
+
+        assertEquals(1, result.deleted());
+        assertEquals(List.of(4L), result.deletedIds());
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowMapper.class));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(sql.capture())).thenReturn(statement);
+        creator.getValue().createPreparedStatement(connection);
+        assertTrue(sql.getValue().startsWith("update cards set deleted_at = ?"));
+        assertTrue(sql.getValue().contains("and deleted_at is null"));
+        verify(statement).setObject(eq(1), any(Timestamp.class));
+        verify(connection).createArrayOf("bigint", new Long[]{4L});
+    }
+}
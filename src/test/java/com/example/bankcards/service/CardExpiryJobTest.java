@@ -0,0 +1,90 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.CardExpiryConfig;
+import com.example.bankcards.config.ShardingConfig;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.CardIdRange;
+import com.example.bankcards.shard.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CardExpiryJobTest {
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 15);
+
+    @Mock
+    private CardRepository cardRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CardExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        CardExpiryConfig config = new CardExpiryConfig();
+        config.setChunkSize(10);
+        config.setPartitions(3);
+        config.setChunksPerSecond(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new CardExpiryJob(cardRepository, config, meterRegistry, new ShardRouter(new ShardingConfig(), Optional.empty()));
+    }
+
+    @Test
+    @DisplayName("Expire covers the whole id range in disjoint chunks and records the run")
+    void testExpireCoversRange() {
+        List<long[]> chunks = new CopyOnWriteArrayList<>();
+        when(cardRepository.findIdRange()).thenReturn(new CardIdRange(5L, 104L));
+        when(cardRepository.expireRange(anyLong(), anyLong(), eq(TODAY))).thenAnswer(invocation -> {
+            chunks.add(new long[]{invocation.getArgument(0), invocation.getArgument(1)});
+            return 1;
+        });
+
+        int expired = job.expire(TODAY);
+
+        assertEquals(10, expired);
+        assertEquals(10, chunks.size());
+        chunks.sort((a, b) -> Long.compare(a[0], b[0]));
+        long next = 5;
+        for (long[] chunk : chunks) {
+            assertEquals(next, chunk[0]);
+            assertTrue(chunk[1] - chunk[0] <= 10);
+            next = chunk[1];
+        }
+        assertEquals(105, next);
+        assertEquals(10.0, meterRegistry.get(CardExpiryJob.EXPIRED_SUMMARY_NAME).summary().totalAmount());
+        assertEquals(1, meterRegistry.get(CardExpiryJob.RUN_TIMER_NAME).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("Expire does nothing when there are no cards")
+    void testExpireEmpty() {
+        when(cardRepository.findIdRange()).thenReturn(new CardIdRange(0L, 0L));
+
+        assertEquals(0, job.expire(TODAY));
+        verify(cardRepository, never()).expireRange(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Expire rethrows a failed chunk and tags the run with the exception")
+    void testExpireFailure() {
+        when(cardRepository.findIdRange()).thenReturn(new CardIdRange(1L, 30L));
+        when(cardRepository.expireRange(anyLong(), anyLong(), eq(TODAY)))
+                .thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> job.expire(TODAY));
+        assertEquals(1, meterRegistry.get(CardExpiryJob.RUN_TIMER_NAME)
+                .tag("outcome", "IllegalStateException").timer().count());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.cache.CacheInvalidationBus;
+import com.example.bankcards.cache.CacheInvalidationEvent;
+import com.example.bankcards.config.CardPageCacheConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
+import com.example.bankcards.repository.projection.CardVersionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class CardPageCacheTest {
+    private static final CardVersionSummary SUMMARY = new CardVersionSummary(1L, 1L, 0L, 0);
+
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private SimpleMeterRegistry meterRegistry;
+    private CardPageCacheConfig config;
+    private CardPageCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new CardPageCacheConfig();
+        config.setSegments(1);
+        cache = new CardPageCache(config, invalidationBus, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Page is loaded once and then served from the cache")
+    void testGetIfCached() {
+        Page<CardDto> first = cache.get(key(1L, 0), SUMMARY, loader(1));
+        Page<CardDto> second = cache.get(key(1L, 0), SUMMARY, loader(1));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("hit"));
+        assertEquals(1, requests("miss"));
+        assertEquals(0.5, meterRegistry.get("bankcards.card-page-cache.hit-ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Page is reloaded when the user's card version summary changed")
+    void testGetIfSummaryChanged() {
+        cache.get(key(1L, 0), SUMMARY, loader(1));
+        cache.get(key(1L, 0), new CardVersionSummary(1L, 1L, 1L, 0), loader(1));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, requests("stale"));
+    }
+
+    @Test
+    @DisplayName("Evicting a user drops all of their pages only")
+    void testEvict() {
+        cache.get(key(1L, 0), SUMMARY, loader(1));
+        cache.get(key(1L, 1), SUMMARY, loader(1));
+        cache.get(key(2L, 0), SUMMARY, loader(1));
+
+        cache.evict(1L);
+        cache.get(key(1L, 0), SUMMARY, loader(1));
+        cache.get(key(2L, 0), SUMMARY, loader(1));
+
+        assertEquals(4, loads.get());
+        assertEquals(2, evictions("write"));
+    }
+
+    @Test
+    @DisplayName("Eviction is announced to the other nodes, and their invalidations evict here")
+    void testInvalidation() {
+        cache.get(key(1L, 0), SUMMARY, loader(1));
+        cache.get(key(2L, 0), SUMMARY, loader(1));
+
+        cache.evictAfterCommit(3L);
+        cache.onInvalidation(new CacheInvalidationEvent(CacheInvalidationEvent.Type.USER, Set.of(1L)));
+        cache.onInvalidation(new CacheInvalidationEvent(CacheInvalidationEvent.Type.USER_CARDS, Set.of(1L)));
+        cache.get(key(1L, 0), SUMMARY, loader(1));
+        cache.get(key(2L, 0), SUMMARY, loader(1));
+        assertEquals(3, loads.get());
+
+        cache.onInvalidation(CacheInvalidationEvent.all(CacheInvalidationEvent.Type.USER_CARDS));
+        assertEquals(0, cache.weight());
+        verify(invalidationBus).publish(CacheInvalidationEvent.Type.USER_CARDS, 3L);
+    }
+
+    @Test
+    @DisplayName("Least recently used users are evicted when the cache is over its weight")
+    void testGetIfOverWeight() {
+        long pageWeight = 256 + 320 * 10;
+        config.setMaximumWeight(pageWeight * 2);
+        cache = new CardPageCache(config, invalidationBus, meterRegistry);
+
+        cache.get(key(1L, 0), SUMMARY, loader(10));
+        cache.get(key(2L, 0), SUMMARY, loader(10));
+        cache.get(key(1L, 0), SUMMARY, loader(10));
+        cache.get(key(3L, 0), SUMMARY, loader(10));
+
+        assertEquals(pageWeight * 2, cache.weight());
+        cache.get(key(1L, 0), SUMMARY, loader(10));
+        assertEquals(3, loads.get());
+        cache.get(key(2L, 0), SUMMARY, loader(10));
+        assertEquals(4, loads.get());
+        assertEquals(2, evictions("size"));
+    }
+
+    @Test
+    @DisplayName("Cache passes through to the loader when disabled")
+    void testGetIfDisabled() {
+        config.setEnabled(false);
+        cache = new CardPageCache(config, invalidationBus, meterRegistry);
+
+        cache.get(key(1L, 0), SUMMARY, loader(1));
+        cache.get(key(1L, 0), SUMMARY, loader(1));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<Page<CardDto>> loader(int cards) {
+        return () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(Stream.generate(CardDto::new).limit(cards).toList());
+        };
+    }
+
+    private static CardPageCache.Key key(Long userId, int page) {
+        return new CardPageCache.Key(userId, null, page, 10, CardField.parse("id,number"), false);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get(CardPageCache.REQUESTS_COUNTER_NAME).tag("result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get(CardPageCache.EVICTIONS_COUNTER_NAME).tag("cause", cause).counter().count();
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.ShardingConfig;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardField;
 import com.example.bankcards.dto.TransferDto;
+import com.example.bankcards.entity.ArchivedCard;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.*;
 import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.repository.ArchivedCardRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.projection.CardSummary;
+import com.example.bankcards.shard.ShardRouter;
 import com.example.bankcards.util.EncryptionUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,20 +25,24 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class CardServiceTest {
     private final CardRepository cardRepository = Mockito.mock(CardRepository.class);
+    private final ArchivedCardRepository archivedCardRepository = Mockito.mock(ArchivedCardRepository.class);
     private final UserRepository userRepository = Mockito.mock(UserRepository.class);
     private final CardMapper cardMapper = Mockito.mock(CardMapper.class);
     private final EncryptionUtil encryptionUtil = Mockito.mock(EncryptionUtil.class);
+    private final CardPageCache pageCache = Mockito.mock(CardPageCache.class);
 
-    private final CardService cardService = new CardService(cardRepository, userRepository, cardMapper, encryptionUtil);
+    private final CardService cardService = new CardService(cardRepository, archivedCardRepository, userRepository,
+            cardMapper, encryptionUtil, pageCache, new ShardRouter(new ShardingConfig(), Optional.empty()));
 
     @Test
     @DisplayName("Get card by ID when card exists")
@@ -92,28 +102,25 @@ public class CardServiceTest {
         List<CardDto> expectedCardDtoList = List.of(dto1, dto2);
 
         when(cardRepository.findAll()).thenReturn(cardList);
-        when(cardMapper.mapToDto(card1)).thenReturn(dto1);
-        when(cardMapper.mapToDto(card2)).thenReturn(dto2);
+        when(cardMapper.mapToDto(card1, CardField.ALL)).thenReturn(dto1);
+        when(cardMapper.mapToDto(card2, CardField.ALL)).thenReturn(dto2);
 
         Collection<CardDto> actualCardDtoList = cardService.getAll();
 
         assertEquals(expectedCardDtoList.size(), actualCardDtoList.size());
         assertTrue(actualCardDtoList.containsAll(expectedCardDtoList));
         verify(cardRepository, times(1)).findAll();
-        verify(cardMapper, times(1)).mapToDto(card1);
-        verify(cardMapper, times(1)).mapToDto(card2);
+        verify(cardMapper, times(1)).mapToDto(card1, CardField.ALL);
+        verify(cardMapper, times(1)).mapToDto(card2, CardField.ALL);
     }
 
     @Test
-    @DisplayName("Get all cards by username when no status provided")
-    public void testGetCardsByUsernameIfStatusNotProvided() {
-        String username = "user";
+    @DisplayName("Get all cards by holder ID when no status provided")
+    public void testGetCardsByHolderIdIfStatusNotProvided() {
+        Long holderId = 2L;
         int page = 0;
         int size = 2;
 
-        User user = new User();
-        user.setUsername(username);
-
         Long firstCardId = 1L;
         Long secondCardId = 2L;
 
@@ -135,32 +142,28 @@ public class CardServiceTest {
         List<CardDto> expectedCardDtoList = List.of(dto1, dto2);
         Page<Card> cardPage = new PageImpl<>(cardList);
 
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(cardRepository.findByHolder(eq(user), any(Pageable.class))).thenReturn(cardPage);
-        when(cardMapper.mapToDto(card1)).thenReturn(dto1);
-        when(cardMapper.mapToDto(card2)).thenReturn(dto2);
+        when(cardRepository.findByHolderId(eq(holderId), any(Pageable.class))).thenReturn(cardPage);
+        when(cardMapper.mapToDto(card1, CardField.ALL)).thenReturn(dto1);
+        when(cardMapper.mapToDto(card2, CardField.ALL)).thenReturn(dto2);
 
-        Page<CardDto> actualPage = cardService.getCardsByUsername(username, null, page, size);
+        Page<CardDto> actualPage = cardService.getCardsByHolderId(holderId, null, page, size);
 
         assertEquals(size, actualPage.getTotalElements());
         assertTrue(actualPage.getContent().containsAll(expectedCardDtoList));
-        verify(userRepository, times(1)).findByUsername(username);
-        verify(cardRepository, times(1)).findByHolder(eq(user), any(Pageable.class));
-        verify(cardMapper, times(1)).mapToDto(card1);
-        verify(cardMapper, times(1)).mapToDto(card2);
+        verify(cardRepository, times(1)).findByHolderId(eq(holderId), any(Pageable.class));
+        verify(cardMapper, times(1)).mapToDto(card1, CardField.ALL);
+        verify(cardMapper, times(1)).mapToDto(card2, CardField.ALL);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    @DisplayName("Get all cards by username when status provided")
-    public void testGetCardsByUsernameIfStatusProvided() {
-        String username = "user";
+    @DisplayName("Get all cards by holder ID when status provided")
+    public void testGetCardsByHolderIdIfStatusProvided() {
+        Long holderId = 2L;
         int page = 0;
         int size = 2;
         CardStatus status = CardStatus.ACTIVE;
 
-        User user = new User();
-        user.setUsername(username);
-
         Long firstCardId = 1L;
         Long secondCardId = 2L;
 
@@ -182,31 +185,83 @@ public class CardServiceTest {
         List<CardDto> expectedCardDtoList = List.of(dto1, dto2);
         Page<Card> cardPage = new PageImpl<>(cardList);
 
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(cardRepository.findByHolderAndStatus(eq(user), eq(status), any(Pageable.class))).thenReturn(cardPage);
-        when(cardMapper.mapToDto(card1)).thenReturn(dto1);
-        when(cardMapper.mapToDto(card2)).thenReturn(dto2);
+        when(cardRepository.findByHolderIdAndStatus(eq(holderId), eq(status), any(Pageable.class)))
+                .thenReturn(cardPage);
+        when(cardMapper.mapToDto(card1, CardField.ALL)).thenReturn(dto1);
+        when(cardMapper.mapToDto(card2, CardField.ALL)).thenReturn(dto2);
 
-        Page<CardDto> actualPage = cardService.getCardsByUsername(username, status, page, size);
+        Page<CardDto> actualPage = cardService.getCardsByHolderId(holderId, status, page, size);
 
         assertEquals(size, actualPage.getTotalElements());
         assertTrue(actualPage.getContent().containsAll(expectedCardDtoList));
-        verify(userRepository, times(1)).findByUsername(username);
         verify(cardRepository, times(1))
-                .findByHolderAndStatus(eq(user), eq(status), any(Pageable.class));
-        verify(cardMapper, times(1)).mapToDto(card1);
-        verify(cardMapper, times(1)).mapToDto(card2);
+                .findByHolderIdAndStatus(eq(holderId), eq(status), any(Pageable.class));
+        verify(cardMapper, times(1)).mapToDto(card1, CardField.ALL);
+        verify(cardMapper, times(1)).mapToDto(card2, CardField.ALL);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    @DisplayName("Get all cards by username when user is not found")
-    public void testGetCardsByUsernameIfUserNotFound() {
-        String username = "user";
+    @DisplayName("Get all cards with scalar fields only uses projection without decryption")
+    public void testGetAllIfOnlyScalarFieldsRequested() {
+        Set<CardField> fields = EnumSet.of(CardField.ID, CardField.STATUS, CardField.BALANCE);
+        CardSummary summary = new CardSummary(1L, null, CardStatus.ACTIVE, BigDecimal.TEN);
+        CardDto dto = new CardDto();
+        dto.setId(1L);
+
+        when(cardRepository.findAllSummaries()).thenReturn(List.of(summary));
+        when(cardMapper.mapToDto(summary, fields)).thenReturn(dto);
 
-        when(userRepository.findByUsername(username)).thenReturn(Optional.empty());
-        assertThrows(UserNotFoundException.class, () ->
-                cardService.getCardsByUsername(username, null, 0, 2));
-        verify(userRepository, times(1)).findByUsername(username);
+        Collection<CardDto> actual = cardService.getAll(fields);
+
+        assertEquals(List.of(dto), actual);
+        verify(cardRepository, never()).findAll();
+        verifyNoInteractions(encryptionUtil);
+    }
+
+    @Test
+    @DisplayName("Get cards by holder ID with scalar fields only uses projection page")
+    public void testGetCardsByHolderIdIfOnlyScalarFieldsRequested() {
+        Long holderId = 2L;
+        Set<CardField> fields = EnumSet.of(CardField.ID, CardField.BALANCE);
+        CardSummary summary = new CardSummary(1L, null, CardStatus.ACTIVE, BigDecimal.TEN);
+        CardDto dto = new CardDto();
+        dto.setId(1L);
+
+        when(cardRepository.findSummariesByHolderIdAndStatus(eq(holderId), eq(CardStatus.ACTIVE), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+        when(cardMapper.mapToDto(summary, fields)).thenReturn(dto);
+
+        Page<CardDto> actual = cardService.getCardsByHolderId(holderId, CardStatus.ACTIVE, 0, 3, fields);
+
+        assertEquals(List.of(dto), actual.getContent());
+        verify(cardRepository, never()).findByHolderIdAndStatus(any(), any(), any());
+        verifyNoInteractions(encryptionUtil);
+    }
+
+    @Test
+    @DisplayName("Get cards with archived appends archived cards once live cards run out")
+    public void testGetCardsWithArchivedByHolderId() {
+        Long holderId = 2L;
+        Set<CardField> fields = EnumSet.of(CardField.ID);
+        CardSummary summary = new CardSummary(5L, null, CardStatus.ACTIVE, BigDecimal.TEN);
+        CardDto live = new CardDto();
+        live.setId(5L);
+        ArchivedCard archivedCard = new ArchivedCard();
+        CardDto archived = new CardDto();
+        archived.setId(1L);
+
+        when(cardRepository.findSummariesByHolderId(eq(holderId), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(summary), invocation.getArgument(1), 4));
+        when(cardMapper.mapToDto(summary, fields)).thenReturn(live);
+        when(archivedCardRepository.countByHolderId(holderId, null)).thenReturn(3L);
+        when(archivedCardRepository.findByHolderId(holderId, null, 0, 2)).thenReturn(List.of(archivedCard));
+        when(cardMapper.mapToDto(archivedCard, fields)).thenReturn(archived);
+
+        Page<CardDto> actual = cardService.getCardsWithArchivedByHolderId(holderId, null, 1, 3, fields);
+
+        assertEquals(List.of(live, archived), actual.getContent());
+        assertEquals(7, actual.getTotalElements());
     }
 
     @Test
@@ -259,37 +314,67 @@ public class CardServiceTest {
         card.setId(cardId);
         card.setStatus(CardStatus.ACTIVE);
 
+        User holder = new User();
+        holder.setId(2L);
         Card updatedCard = new Card();
         updatedCard.setId(cardId);
         updatedCard.setStatus(CardStatus.BLOCKED);
+        updatedCard.setHolder(holder);
 
         CardDto expectedDto = new CardDto();
         expectedDto.setId(cardId);
         expectedDto.setStatus(CardStatus.BLOCKED);
 
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
-        when(cardRepository.save(card)).thenReturn(updatedCard);
+        when(cardRepository.saveAndFlush(card)).thenReturn(updatedCard);
         when(cardMapper.mapToDto(updatedCard)).thenReturn(expectedDto);
 
         CardDto actual = cardService.changeCardStatus(cardId, CardStatus.BLOCKED);
 
         assertEquals(CardStatus.BLOCKED, actual.getStatus());
+        verify(pageCache).evictAfterCommit(2L);
         verify(cardRepository, times(1)).findById(cardId);
-        verify(cardRepository, times(1)).save(card);
+        verify(cardRepository, times(1)).saveAndFlush(card);
         verify(cardMapper, times(1)).mapToDto(updatedCard);
     }
 
     @Test
-    @DisplayName("Delete card by ID when card exists")
-    void testDeleteByIdIfCardFound() {
+    @DisplayName("Change card status fails when expected version is stale")
+    void testChangeCardStatusIfVersionMismatch() {
         Long cardId = 1L;
         Card card = new Card();
         card.setId(cardId);
+        card.setStatus(CardStatus.ACTIVE);
+        card.setVersion(3L);
 
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+
+        assertThrows(CardVersionMismatchException.class,
+                () -> cardService.changeCardStatus(cardId, CardStatus.BLOCKED, 2L));
+        assertEquals(CardStatus.ACTIVE, card.getStatus());
+        verify(cardRepository, never()).saveAndFlush(any(Card.class));
+    }
+
+    @Test
+    @DisplayName("Get card version when card is not found")
+    void testGetVersionByIdIfCardNotFound() {
+        Long cardId = 1L;
+
+        when(cardRepository.findVersionById(cardId)).thenReturn(Optional.empty());
+        assertThrows(CardNotFoundException.class, () -> cardService.getVersionById(cardId));
+    }
+
+    @Test
+    @DisplayName("Delete card by ID soft-deletes it without loading it")
+    void testDeleteByIdIfCardFound() {
+        Long cardId = 1L;
+
+        when(cardRepository.findHolderIdById(cardId)).thenReturn(Optional.of(2L));
+        when(cardRepository.softDeleteById(eq(cardId), any())).thenReturn(1);
         cardService.deleteById(cardId);
-        verify(cardRepository, times(1)).findById(cardId);
-        verify(cardRepository, times(1)).deleteById(cardId);
+        verify(cardRepository, never()).findById(cardId);
+        verify(cardRepository, never()).deleteById(cardId);
+        verify(pageCache).evictAfterCommit(2L);
     }
 
     @Test
@@ -297,42 +382,36 @@ public class CardServiceTest {
     void testDeleteByIdIfCardNotFound() {
         Long cardId = 1L;
 
-        when(cardRepository.findById(cardId)).thenReturn(Optional.empty());
+        when(cardRepository.findHolderIdById(cardId)).thenReturn(Optional.empty());
         assertThrows(CardNotFoundException.class, () -> cardService.deleteById(cardId));
-        verify(cardRepository, times(1)).findById(cardId);
-        verify(cardRepository, never()).deleteById(cardId);
+        verify(cardRepository, never()).softDeleteById(any(), any());
     }
 
     @Test
     @DisplayName("Get user's balance when user has cards")
-    void testGetBalanceByUsernameIfHasCards() {
-        String username = "user";
-        Card card1 = new Card();
-        card1.setBalance(BigDecimal.valueOf(50_000));
-        Card card2 = new Card();
-        card2.setBalance(BigDecimal.valueOf(100_000));
-        List<Card> cards = List.of(card1, card2);
+    void testGetBalanceByHolderIdIfHasCards() {
+        Long holderId = 2L;
 
-        when(cardRepository.findByHolderUsername(username)).thenReturn(cards);
-        BigDecimal actualBalance = cardService.getBalanceByUsername(username);
+        when(cardRepository.sumBalanceByHolderId(holderId)).thenReturn(BigDecimal.valueOf(150_000));
+        BigDecimal actualBalance = cardService.getBalanceByHolderId(holderId);
         assertEquals(BigDecimal.valueOf(150_000), actualBalance);
-        verify(cardRepository, times(1)).findByHolderUsername(username);
+        verify(cardRepository, times(1)).sumBalanceByHolderId(holderId);
     }
 
     @Test
     @DisplayName("Get user's balance when user has no cards")
-    void testGetBalanceByUsernameIfNoCards() {
-        String username = "user";
-        when(cardRepository.findByHolderUsername(username)).thenReturn(Collections.emptyList());
-        BigDecimal actualBalance = cardService.getBalanceByUsername(username);
+    void testGetBalanceByHolderIdIfNoCards() {
+        Long holderId = 2L;
+        when(cardRepository.sumBalanceByHolderId(holderId)).thenReturn(BigDecimal.ZERO);
+        BigDecimal actualBalance = cardService.getBalanceByHolderId(holderId);
         assertEquals(BigDecimal.ZERO, actualBalance);
-        verify(cardRepository, times(1)).findByHolderUsername(username);
+        verify(cardRepository, times(1)).sumBalanceByHolderId(holderId);
     }
 
     @Test
     @DisplayName("Correct transfer between user's cards")
     void testTransferIfCorrect() {
-        String username = "user";
+        Long holderId = 2L;
         Long fromCardId = 1L;
         Long toCardId = 2L;
         BigDecimal amount = BigDecimal.valueOf(10_000);
@@ -343,7 +422,7 @@ public class CardServiceTest {
         transferDto.setAmount(amount);
 
         User user = new User();
-        user.setUsername(username);
+        user.setId(holderId);
 
         Card fromCard = new Card();
         fromCard.setId(fromCardId);
@@ -359,21 +438,22 @@ public class CardServiceTest {
         toCard.setStatus(CardStatus.ACTIVE);
         toCard.setBalance(BigDecimal.valueOf(90_000));
 
-        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
+        when(cardRepository.findByIdAndHolderId(fromCardId, holderId)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdAndHolderId(toCardId, holderId)).thenReturn(Optional.of(toCard));
 
-        cardService.transfer(transferDto, username);
+        cardService.transfer(transferDto, holderId);
 
         assertEquals(BigDecimal.valueOf(10_000), fromCard.getBalance());
         assertEquals(BigDecimal.valueOf(100_000), toCard.getBalance());
         verify(cardRepository, times(1)).save(fromCard);
         verify(cardRepository, times(1)).save(toCard);
+        verify(pageCache).evictAfterCommit(holderId);
     }
 
     @Test
     @DisplayName("Transfer fails when fromCard is not found")
     void testTransferIfFromCardNotFound() {
-        String username = "user";
+        Long holderId = 2L;
         Long fromCardId = 1L;
         Long toCardId = 2L;
         BigDecimal amount = BigDecimal.valueOf(10_000);
@@ -383,15 +463,15 @@ public class CardServiceTest {
         transferDto.setToCardId(toCardId);
         transferDto.setAmount(amount);
 
-        when(cardRepository.findById(fromCardId)).thenReturn(Optional.empty());
-        assertThrows(CardNotFoundException.class, () -> cardService.transfer(transferDto, username));
+        when(cardRepository.findByIdAndHolderId(fromCardId, holderId)).thenReturn(Optional.empty());
+        assertThrows(CardNotFoundException.class, () -> cardService.transfer(transferDto, holderId));
     }
 
     @Test
     @DisplayName("Transfer fails when at least one of cards is not owned by user")
     void testTransferIfNotOwnCards() {
-        String firstUsername = "user1";
-        String secondUsername = "user2";
+        Long firstUserId = 1L;
+        Long secondUserId = 2L;
 
         Long fromCardId = 1L;
         Long toCardId = 2L;
@@ -403,9 +483,9 @@ public class CardServiceTest {
         transferDto.setAmount(amount);
 
         User user1 = new User();
-        user1.setUsername(firstUsername);
+        user1.setId(firstUserId);
         User user2 = new User();
-        user1.setUsername(secondUsername);
+        user2.setId(secondUserId);
 
         Card fromCard = new Card();
         fromCard.setId(fromCardId);
@@ -419,15 +499,16 @@ public class CardServiceTest {
         toCard.setStatus(CardStatus.ACTIVE);
         toCard.setBalance(BigDecimal.valueOf(90_000));
 
-        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
-        assertThrows(UnauthorizedActionException.class, () -> cardService.transfer(transferDto, firstUsername));
+        when(cardRepository.findByIdAndHolderId(fromCardId, firstUserId)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdAndHolderId(toCardId, firstUserId)).thenReturn(Optional.empty());
+        when(cardRepository.existsById(toCardId)).thenReturn(true);
+        assertThrows(UnauthorizedActionException.class, () -> cardService.transfer(transferDto, firstUserId));
     }
 
     @Test
     @DisplayName("Transfer fails when fromCard is not active")
     void testTransferUsingNotActiveCard() {
-        String username = "user";
+        Long holderId = 2L;
         Long fromCardId = 1L;
         Long toCardId = 2L;
         BigDecimal amount = BigDecimal.valueOf(10_000);
@@ -438,7 +519,7 @@ public class CardServiceTest {
         transferDto.setAmount(amount);
 
         User user = new User();
-        user.setUsername(username);
+        user.setId(holderId);
 
         Card fromCard = new Card();
         fromCard.setId(fromCardId);
@@ -454,15 +535,15 @@ public class CardServiceTest {
         toCard.setStatus(CardStatus.ACTIVE);
         toCard.setBalance(BigDecimal.valueOf(90_000));
 
-        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
-        assertThrows(CardNotActiveException.class, () -> cardService.transfer(transferDto, username));
+        when(cardRepository.findByIdAndHolderId(fromCardId, holderId)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdAndHolderId(toCardId, holderId)).thenReturn(Optional.of(toCard));
+        assertThrows(CardNotActiveException.class, () -> cardService.transfer(transferDto, holderId));
     }
 
     @Test
     @DisplayName("Transfer fails when user has insufficient funds on card")
     void testTransferIfInsufficientFunds() {
-        String username = "user";
+        Long holderId = 2L;
         Long fromCardId = 1L;
         Long toCardId = 2L;
         BigDecimal amount = BigDecimal.valueOf(10_000);
@@ -473,7 +554,7 @@ public class CardServiceTest {
         transferDto.setAmount(amount);
 
         User user = new User();
-        user.setUsername(username);
+        user.setId(holderId);
 
         Card fromCard = new Card();
         fromCard.setId(fromCardId);
@@ -489,28 +570,28 @@ public class CardServiceTest {
         toCard.setStatus(CardStatus.ACTIVE);
         toCard.setBalance(BigDecimal.valueOf(90_000));
 
-        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
-        assertThrows(InsufficientFundsException.class, () -> cardService.transfer(transferDto, username));
+        when(cardRepository.findByIdAndHolderId(fromCardId, holderId)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdAndHolderId(toCardId, holderId)).thenReturn(Optional.of(toCard));
+        assertThrows(InsufficientFundsException.class, () -> cardService.transfer(transferDto, holderId));
     }
 
     @Test
     @DisplayName("Correct request block")
     void testRequestBlockIfOk() {
         Long cardId = 1L;
-        String username = "user";
+        Long holderId = 2L;
 
         User user = new User();
-        user.setUsername(username);
+        user.setId(holderId);
 
         Card card = new Card();
         card.setId(cardId);
         card.setHolder(user);
         card.setStatus(CardStatus.ACTIVE);
 
-        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        when(cardRepository.findByIdAndHolderId(cardId, holderId)).thenReturn(Optional.of(card));
 
-        cardService.requestBlock(cardId, username);
+        cardService.requestBlock(cardId, holderId);
 
         assertEquals(CardStatus.BLOCKED, card.getStatus());
         verify(cardRepository, times(1)).save(card);
@@ -520,45 +601,46 @@ public class CardServiceTest {
     @DisplayName("Request block fails when card is not found")
     void testRequestBlockIfCardNotFound() {
         Long cardId = 1L;
-        String username = "user";
-        when(cardRepository.findById(cardId)).thenReturn(Optional.empty());
-        assertThrows(CardNotFoundException.class, () -> cardService.requestBlock(cardId, username));
+        Long holderId = 2L;
+        when(cardRepository.findByIdAndHolderId(cardId, holderId)).thenReturn(Optional.empty());
+        assertThrows(CardNotFoundException.class, () -> cardService.requestBlock(cardId, holderId));
     }
 
     @Test
     @DisplayName("Request block fails when card not owned by user")
     void testRequestBlockIfUnauthorizedUser() {
         Long cardId = 1L;
-        String username = "user";
+        Long holderId = 2L;
 
         User anotherUser = new User();
-        anotherUser.setUsername("other");
+        anotherUser.setId(3L);
 
         Card card = new Card();
         card.setId(cardId);
         card.setHolder(anotherUser);
         card.setStatus(CardStatus.ACTIVE);
 
-        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
-        assertThrows(UnauthorizedActionException.class, () -> cardService.requestBlock(cardId, username));
+        when(cardRepository.findByIdAndHolderId(cardId, holderId)).thenReturn(Optional.empty());
+        when(cardRepository.existsById(cardId)).thenReturn(true);
+        assertThrows(UnauthorizedActionException.class, () -> cardService.requestBlock(cardId, holderId));
     }
 
     @Test
     @DisplayName("Request block fails when card is not active")
     void testRequestBlockIfCardNotActive() {
         Long cardId = 1L;
-        String username = "user";
+        Long holderId = 2L;
 
         User user = new User();
-        user.setUsername(username);
+        user.setId(holderId);
 
         Card card = new Card();
         card.setId(cardId);
         card.setHolder(user);
         card.setStatus(CardStatus.BLOCKED);
 
-        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
-        assertThrows(UnauthorizedActionException.class, () -> cardService.requestBlock(cardId, username));
+        when(cardRepository.findByIdAndHolderId(cardId, holderId)).thenReturn(Optional.of(card));
+        assertThrows(UnauthorizedActionException.class, () -> cardService.requestBlock(cardId, holderId));
     }
 
 }
@@ -0,0 +1,74 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.TestRows;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PurgeJobTest {
+    @Autowired
+    private PurgeJob purgeJob;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestRows rows;
+
+    @BeforeEach
+    void setUp() {
+        rows = new TestRows(jdbcTemplate, "purge_");
+    }
+
+    @AfterEach
+    void tearDown() {
+        rows.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Purge removes soft-deleted rows past retention together with their roles and cards")
+    void testPurge() {
+        Instant now = Instant.now();
+        Instant old = now.minus(1, ChronoUnit.HOURS);
+        long gone = rows.insertUser("gone", old);
+        long fresh = rows.insertUser("fresh", now);
+        long kept = rows.insertUser("kept", null);
+        long goneCard = rows.insertCard(gone, "ACTIVE", BigDecimal.ZERO, null, null);
+        long deletedCard = rows.insertCard(kept, "ACTIVE", BigDecimal.ZERO, null, old);
+        long keptCard = rows.insertCard(kept, "ACTIVE", BigDecimal.ZERO, null, null);
+        assertTrue(userRepository.findById(gone).isEmpty());
+        assertTrue(cardRepository.findById(deletedCard).isEmpty());
+
+        assertEquals(2, purgeJob.purge(now.minus(10, ChronoUnit.MINUTES)));
+
+        assertEquals(0, count("select count(*) from users where id = ?", gone));
+        assertEquals(0, count("select count(*) from user_roles where user_id = ?", gone));
+        assertEquals(0, count("select count(*) from cards where id in (?, ?)", goneCard, deletedCard));
+        assertEquals(1, count("select count(*) from users where id = ?", fresh));
+        assertTrue(userRepository.findById(kept).isPresent());
+        assertTrue(cardRepository.findById(keptCard).isPresent());
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ShardingConfig;
+import com.example.bankcards.config.StatementConfig;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.projection.StatementLine;
+import com.example.bankcards.shard.ShardRouter;
+import com.example.bankcards.util.EncryptionUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementJobTest {
+    private static final YearMonth PERIOD = YearMonth.of(2030, 1);
+
+    @Mock
+    private CardRepository cardRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private EncryptionUtil encryptionUtil;
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StatementConfig config;
+    private StatementJob job;
+
+    @BeforeEach
+    void setUp() {
+        config = new StatementConfig();
+        config.setDirectory(directory);
+        config.setPartitions(1);
+        config.setCheckpointInterval(1);
+        job = new StatementJob(cardRepository, config, new SimpleMeterRegistry(), transactionManager,
+                encryptionUtil, objectMapper, new ShardRouter(new ShardingConfig(), Optional.empty()));
+    }
+
+    @Test
+    @DisplayName("Generate writes one compressed statement per holder with masked numbers and totals")
+    void testGenerate() throws IOException {
+        when(encryptionUtil.decrypt(anyString())).thenReturn("1234567812345678");
+        when(cardRepository.streamStatementLines(1, 0, 0L)).thenReturn(Stream.of(
+                line(1L, "alice", 10L, "100.00"),
+                line(1L, "alice", 11L, "50.50"),
+                line(1002L, "bob", 12L, "7.00")));
+
+        int written = job.generate(PERIOD);
+
+        assertEquals(2, written);
+        JsonNode alice = read(directory.resolve("2030-01/0/1.json.gz"));
+        assertEquals("alice", alice.get("username").asText());
+        assertEquals("2030-01", alice.get("period").asText());
+        assertEquals(2, alice.get("cards").size());
+        assertEquals("**** **** **** 5678", alice.get("cards").get(0).get("number").asText());
+        assertEquals(150.5, alice.get("totalBalance").asDouble());
+        JsonNode bob = read(directory.resolve("2030-01/1/1002.json.gz"));
+        assertEquals(1, bob.get("cards").size());
+        assertEquals("1002", Files.readString(directory.resolve("2030-01/.checkpoint-0-of-1")));
+    }
+
+    @Test
+    @DisplayName("Generate resumes after the checkpointed holder")
+    void testGenerateResumes() throws IOException {
+        Files.createDirectories(directory.resolve("2030-01"));
+        Files.writeString(directory.resolve("2030-01/.checkpoint-0-of-1"), "41");
+        when(cardRepository.streamStatementLines(1, 0, 41L)).thenReturn(Stream.empty());
+
+        assertEquals(0, job.generate(PERIOD));
+        verify(cardRepository).streamStatementLines(1, 0, 41L);
+    }
+
+    private static StatementLine line(Long holderId, String username, Long cardId, String balance) {
+        return new StatementLine(holderId, username, cardId, "<encrypted>", LocalDate.of(2031, 5, 1),
+                CardStatus.ACTIVE, new BigDecimal(balance));
+    }
+
+    private JsonNode read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readTree(in);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.TestRows;
+import com.example.bankcards.dto.UserImportResult;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.InvalidImportFileException;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class UserImportServiceTest {
+    @Autowired
+    private UserImportService userImportService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        new TestRows(jdbcTemplate, "imp_").deleteAll();
+    }
+
+    @Test
+    @DisplayName("Import creates users with hashed passwords and roles and reports rejected rows")
+    @Transactional
+    void testImport() throws IOException {
+        String csv = """
+                username,password,roles
+                imp_alice,secret1,USER
+                imp_bob,"pa,ss""word",USER|ADMIN
+                imp_alice,secret2,USER
+                admin,secret3,USER
+                imp,secret4,USER
+                imp_carol,secret5,OWNER
+
+                imp_dave,secret6
+                """;
+
+        UserImportResult result = userImportService.importCsv(stream(csv));
+
+        assertEquals(2, result.imported());
+        assertEquals(5, result.rejected());
+        assertEquals(List.of(4L, 5L, 6L, 7L, 9L),
+                result.errors().stream().map(UserImportResult.RowError::line).toList());
+        Map<Long, String> errors = result.errors().stream()
+                .collect(Collectors.toMap(UserImportResult.RowError::line, UserImportResult.RowError::message));
+        assertEquals("Duplicate username in file", errors.get(4L));
+        assertEquals("Username already exists", errors.get(5L));
+        assertEquals("Username must be at least 4 characters", errors.get(6L));
+        assertEquals("Unknown role 'OWNER'", errors.get(7L));
+        assertEquals("Expected 3 fields but found 2", errors.get(9L));
+
+        User bob = userRepository.findByUsername("imp_bob").orElseThrow();
+        assertTrue(passwordEncoder.matches("pa,ss\"word", bob.getPassword()));
+        assertEquals(2, bob.getRoles().size());
+        assertEquals(1, userRepository.findByUsername("imp_alice").orElseThrow().getRoles().size());
+    }
+
+    @Test
+    @DisplayName("Import rejects a file without the expected header")
+    void testImportInvalidHeader() {
+        assertThrows(InvalidImportFileException.class,
+                () -> userImportService.importCsv(stream("name,password\nimp_alice,secret,USER\n")));
+    }
+
+    @Test
+    @DisplayName("CSV lines are split on commas outside quotes")
+    void testSplitCsvLine() {
+        assertEquals(List.of("a", "b,c", "d\"e", ""), UserImportService.splitCsvLine("a,\"b,c\",\"d\"\"e\","));
+        assertThrows(IllegalArgumentException.class, () -> UserImportService.splitCsvLine("a,\"b"));
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.ShardingConfig;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.dto.UserUpdateDto;
 import com.example.bankcards.entity.Role;
@@ -7,13 +8,18 @@ import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.DuplicateUsernameException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.mapper.UserMapper;
+import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.TokenVersionCache;
+import com.example.bankcards.shard.ShardRouter;
+import com.example.bankcards.shard.UserDirectory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -34,6 +40,16 @@ public class UserServiceTest {
     private UserMapper userMapper;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+    @Mock
+    private CardRepository cardRepository;
+    @Mock
+    private CardPageCache pageCache;
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingConfig(), Optional.empty());
+    @Mock
+    private UserDirectory userDirectory;
     @InjectMocks
     private UserService userService;
 
@@ -216,6 +232,10 @@ public class UserServiceTest {
         verify(roleRepository, times(1)).findByNameIn(Set.of(newRoleName));
         verify(userRepository, times(1)).save(any(User.class));
         verify(userMapper, times(1)).mapToDto(updatedUser);
+        assertEquals(1, oldUser.getTokenVersion());
+        verify(tokenVersionCache, times(1)).evictAfterCommit(userId);
+        verify(cardRepository, times(1)).touchByHolderId(userId);
+        verify(pageCache, times(1)).evictAfterCommit(userId);
     }
 
     @Test
@@ -231,16 +251,16 @@ public class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Delete user by ID when exists")
+    @DisplayName("Delete user by ID soft-deletes the user and their cards")
     void testDeleteByIdIfUserFound() {
         Long userId = 1L;
-        User user = new User();
-        user.setId(userId);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.softDeleteById(eq(userId), any())).thenReturn(1);
         userService.deleteById(userId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).deleteById(userId);
+        verify(cardRepository, times(1)).softDeleteByHolderId(eq(userId), any());
+        verify(userRepository, never()).deleteById(any());
+        verify(tokenVersionCache, times(1)).evictAfterCommit(userId);
+        verify(pageCache, times(1)).evictAfterCommit(userId);
     }
 
     @Test
@@ -248,9 +268,9 @@ public class UserServiceTest {
     void testDeleteByIdIfCardNotFound() {
         Long userId = 1L;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.softDeleteById(eq(userId), any())).thenReturn(0);
         assertThrows(UserNotFoundException.class, () -> userService.deleteById(userId));
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, never()).deleteById(any());
+        verify(cardRepository, never()).softDeleteByHolderId(any(), any());
+        verify(tokenVersionCache, never()).evictAfterCommit(any());
     }
 }
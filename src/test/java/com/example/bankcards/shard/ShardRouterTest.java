@@ -0,0 +1,140 @@
+package com.example.bankcards.shard;
+
+import com.example.bankcards.config.ShardingConfig;
+import com.example.bankcards.entity.User;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routes over two in-memory databases, each of which knows its own index.
+ */
+public class ShardRouterTest {
+    private ShardRouter shardRouter;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource(List.of(shard(0), shard(1)));
+        shardRouter = new ShardRouter(new ShardingConfig(), Optional.of(dataSource));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.stop();
+    }
+
+    @Test
+    @DisplayName("Ids, usernames and refresh tokens map to shards")
+    void testShardOf() {
+        assertEquals(2, shardRouter.count());
+        assertEquals(0, shardRouter.shardOf(4L));
+        assertEquals(1, shardRouter.shardOf(7L));
+        assertEquals(Math.floorMod("user".hashCode(), 2), shardRouter.shardOfName("user"));
+        assertEquals("1.abc", shardRouter.tagToken(7L, "abc"));
+        assertEquals(1, shardRouter.shardOfToken("1.abc"));
+        assertEquals(0, shardRouter.shardOfToken("abc"));
+        assertEquals(0, shardRouter.shardOfToken("5.abc"));
+    }
+
+    @Test
+    @DisplayName("Connections come from the shard in context, and from shard 0 without one")
+    void testOnShard() {
+        assertEquals(1, shardRouter.onShard(1, this::queryShard));
+        assertEquals(0, queryShard());
+        assertNull(ShardContext.current());
+        assertEquals(List.of(0, 1), shardRouter.onEachShard(this::queryShard));
+        assertEquals(List.of(3L), shardRouter.onShard(1, () -> shardRouter.onCurrentShard(List.of(2L, 3L, 4L))));
+    }
+
+    @Test
+    @DisplayName("A transaction cannot switch to another shard")
+    void testOnShardInsideTransaction() {
+        int shard = shardRouter.onShard(1, () -> transactionTemplate.execute(status ->
+                shardRouter.onShard(1, this::queryShard)));
+        assertEquals(1, shard);
+
+        assertThrows(IllegalStateException.class, () -> shardRouter.onShard(1, () ->
+                transactionTemplate.execute(status -> shardRouter.onShard(0, this::queryShard))));
+    }
+
+    @Test
+    @DisplayName("Methods with a shard key run on the shard of the key")
+    void testRoutingAspect() {
+        UserDirectory userDirectory = mock(UserDirectory.class);
+        when(userDirectory.shardOf("moved")).thenReturn(1);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Accounts(jdbcTemplate));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ShardRoutingAspect(shardRouter, userDirectory));
+        Accounts accounts = factory.getProxy();
+
+        User user = new User();
+        user.setId(5L);
+        assertEquals(1, accounts.byId(3L));
+        assertEquals(0, accounts.byId(4L));
+        assertEquals(1, accounts.byUsername("moved"));
+        assertEquals(1, accounts.byUser(user));
+        assertEquals(1, accounts.byToken("1.abc"));
+        assertEquals(0, accounts.byId(null));
+        assertNull(ShardContext.current());
+    }
+
+    private Integer queryShard() {
+        return jdbcTemplate.queryForObject("select shard from shard_index", Integer.class);
+    }
+
+    private static DataSource shard(int index) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:shard-router-" + index + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists shard_index (shard int)");
+        jdbcTemplate.update("delete from shard_index");
+        jdbcTemplate.update("insert into shard_index (shard) values (?)", index);
+        return dataSource;
+    }
+
+    static class Accounts {
+        private final JdbcTemplate jdbcTemplate;
+
+        Accounts(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        public Integer byId(@ShardKey Long id) {
+            return shard();
+        }
+
+        public Integer byUsername(@ShardKey(ShardKey.Kind.USERNAME) String username) {
+            return shard();
+        }
+
+        public Integer byUser(@ShardKey(property = "id") User user) {
+            return shard();
+        }
+
+        public Integer byToken(@ShardKey(ShardKey.Kind.TOKEN) String token) {
+            return shard();
+        }
+
+        private Integer shard() {
+            return jdbcTemplate.queryForObject("select shard from shard_index", Integer.class);
+        }
+    }
+}